@@ -0,0 +1,127 @@
+package com.facegram.benchmark;
+
+import com.facegram.model.Comment;
+import com.facegram.model.Post;
+import com.facegram.model.User;
+import com.facegram.repository.CommentRepository;
+import com.facegram.service.BulkInsertService;
+import com.facegram.service.BulkInsertService.CommentRow;
+import com.facegram.service.BulkInsertService.LikeRow;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Linhas/s gravadas em lotes de BATCH_SIZE: JDBC em lote do BulkInsertService contra o saveAll
+// do JPA (sequências em pool, lote do Hibernate), que é o caminho das entidades.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BulkInsertBenchmark.BATCH_SIZE)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BulkInsertBenchmark {
+    
+    static final int BATCH_SIZE = 1000;
+    
+    private static final String USERS = "1000";
+    // Posts novos por iteração: cada par (usuário, post) recebe no máximo uma curtida
+    private static final int FRESH_POSTS = 1000;
+    
+    private ConfigurableApplicationContext context;
+    private BulkInsertService bulkInsertService;
+    private CommentRepository commentRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private SplittableRandom random;
+    private long minUserId;
+    private long userCount;
+    private List<Long> postIds;
+    private long likeCursor;
+    private int iteration;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = FacegramContext.seeded(USERS);
+        bulkInsertService = context.getBean(BulkInsertService.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        minUserId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        userCount = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class) - minUserId + 1;
+        random = new SplittableRandom(42);
+    }
+    
+    // SYSTEM_RANGE é do H2: o benchmark roda sempre no banco em memória
+    @Setup(Level.Iteration)
+    public void freshPosts() {
+        String marker = "benchmark-" + (++iteration);
+        jdbcTemplate.update("INSERT INTO posts (id, content, created_at, likes_count, comments_count, user_id) "
+                + "SELECT nextval('posts_seq'), ?, CURRENT_TIMESTAMP, 0, 0, ? FROM SYSTEM_RANGE(1, ?)",
+                marker, minUserId, FRESH_POSTS);
+        postIds = jdbcTemplate.queryForList("SELECT id FROM posts WHERE content = ? ORDER BY id", Long.class, marker);
+        likeCursor = 0;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public int bulkLikes() {
+        if (likeCursor + BATCH_SIZE > userCount * postIds.size()) {
+            throw new IllegalStateException("Pares (usuário, post) esgotados na iteração; aumente FRESH_POSTS");
+        }
+        List<LikeRow> likes = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++, likeCursor++) {
+            long userId = minUserId + likeCursor % userCount;
+            long postId = postIds.get((int) (likeCursor / userCount));
+            likes.add(new LikeRow(userId, postId, null));
+        }
+        return bulkInsertService.insertLikes(likes);
+    }
+    
+    @Benchmark
+    public int bulkComments() {
+        List<CommentRow> comments = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            comments.add(new CommentRow(randomUserId(), randomPostId(), "Comentário de carga", null));
+        }
+        return bulkInsertService.insertComments(comments);
+    }
+    
+    // Mesmo lote pelo Hibernate; os contadores dos posts ficam de fora, como num import via JPA
+    @Benchmark
+    public int jpaComments() {
+        return transactionTemplate.execute(status -> {
+            List<Comment> comments = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                comments.add(new Comment("Comentário de carga",
+                        entityManager.getReference(User.class, randomUserId()),
+                        entityManager.getReference(Post.class, randomPostId())));
+            }
+            commentRepository.saveAll(comments);
+            entityManager.flush();
+            entityManager.clear();
+            return comments.size();
+        });
+    }
+    
+    private long randomUserId() {
+        return minUserId + random.nextLong(userCount);
+    }
+    
+    private long randomPostId() {
+        return postIds.get(random.nextInt(postIds.size()));
+    }
+}
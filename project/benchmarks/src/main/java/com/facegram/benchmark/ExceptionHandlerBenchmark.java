@@ -0,0 +1,37 @@
+package com.facegram.benchmark;
+
+import com.facegram.exception.GlobalExceptionHandler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Respostas de erro: os serviços sinalizam "não encontrado" e afins com RuntimeException
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+    
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final RuntimeException notFound = new RuntimeException("Post não encontrado");
+    
+    // Só a montagem do corpo da resposta
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> handle() {
+        return handler.handleRuntimeException(notFound);
+    }
+    
+    // Como acontece numa requisição: a exceção é criada (com stack trace) e tratada
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> throwAndHandle() {
+        try {
+            throw new RuntimeException("Post não encontrado");
+        } catch (RuntimeException ex) {
+            return handler.handleRuntimeException(ex);
+        }
+    }
+}
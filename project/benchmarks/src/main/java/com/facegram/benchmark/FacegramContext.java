@@ -0,0 +1,49 @@
+package com.facegram.benchmark;
+
+import com.facegram.FacegramApiApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+// Sobe o contexto Spring dentro do fork do JMH, com o application.yml da aplicação e sem SQL no log
+final class FacegramContext {
+    
+    // Volume do dataset do FeedBenchmark; no fork, passe com -jvmArgsAppend -Dfacegram.benchmark.users=N
+    static final String SEED_USERS = System.getProperty("facegram.benchmark.users", "5000");
+    
+    private static final String[] QUIET = {
+        "--spring.main.banner-mode=off",
+        "--spring.jpa.show-sql=false",
+        "--logging.level.root=WARN",
+        "--logging.level.com.facegram=WARN",
+        "--logging.level.org.springframework.security=WARN"
+    };
+    
+    private FacegramContext() {}
+    
+    // Aplicação completa em porta aleatória; o perfil seed gera o dataset no H2 em memória antes de retornar
+    static ConfigurableApplicationContext seeded(String users) {
+        return new SpringApplicationBuilder(FacegramApiApplication.class)
+                .profiles("seed")
+                .run(with("--server.port=0", "--facegram.seed.users=" + users));
+    }
+    
+    // Só os componentes informados, sem varredura de pacotes nem banco
+    static ConfigurableApplicationContext components(Class<?>... components) {
+        return components(new String[0], components);
+    }
+    
+    static ConfigurableApplicationContext components(String[] args, Class<?>... components) {
+        return new SpringApplicationBuilder(components)
+                .web(WebApplicationType.NONE)
+                .run(with(args));
+    }
+    
+    private static String[] with(String... args) {
+        String[] all = Arrays.copyOf(QUIET, QUIET.length + args.length);
+        System.arraycopy(args, 0, all, QUIET.length, args.length);
+        return all;
+    }
+}
@@ -0,0 +1,85 @@
+package com.facegram.benchmark;
+
+import com.facegram.dto.CursorPage;
+import com.facegram.dto.PostDTO;
+import com.facegram.service.PostService;
+import com.facegram.timeline.TimelineService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Montagem do feed contra o H2 em memória semeado pelo SeedDataGenerator (Zipf em autores,
+// seguidores e curtidas). Cada chamada usa um leitor sorteado, então caches e caixas de
+// entrada ficam parcialmente quentes, como em produção.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FeedBenchmark {
+    
+    private static final int DEEP_PAGE = 5;
+    
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private TimelineService timelineService;
+    private SplittableRandom random;
+    private long minUserId;
+    private long userCount;
+    private String deepCursor;
+    
+    @Setup
+    public void setUp() {
+        context = FacegramContext.seeded(FacegramContext.SEED_USERS);
+        postService = context.getBean(PostService.class);
+        timelineService = context.getBean(TimelineService.class);
+        
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        minUserId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        userCount = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class) - minUserId + 1;
+        random = new SplittableRandom(42);
+        
+        // Cursor de uma página mais funda do feed global, fora do alcance do índice só pelo topo
+        String cursor = null;
+        for (int page = 1; page < DEEP_PAGE; page++) {
+            cursor = postService.getPostsAfter(cursor, Fixtures.PAGE_SIZE, minUserId).getNextCursor();
+        }
+        deepCursor = cursor;
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    // GET /api/posts?limit=20
+    @Benchmark
+    public CursorPage<PostDTO> globalFeed() {
+        return postService.getPostsAfter(null, Fixtures.PAGE_SIZE, nextUserId());
+    }
+    
+    @Benchmark
+    public CursorPage<PostDTO> globalFeedDeepPage() {
+        return postService.getPostsAfter(deepCursor, Fixtures.PAGE_SIZE, nextUserId());
+    }
+    
+    // GET /api/posts/user/{userId}?limit=20
+    @Benchmark
+    public CursorPage<PostDTO> authorFeed() {
+        return postService.getPostsByUserIdAfter(nextUserId(), null, Fixtures.PAGE_SIZE, nextUserId());
+    }
+    
+    // GET /api/posts/home?limit=20
+    @Benchmark
+    public CursorPage<PostDTO> homeTimeline() {
+        return timelineService.getHomeTimeline(nextUserId(), null, Fixtures.PAGE_SIZE);
+    }
+    
+    private long nextUserId() {
+        return minUserId + random.nextLong(userCount);
+    }
+}
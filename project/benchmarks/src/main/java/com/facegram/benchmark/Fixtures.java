@@ -0,0 +1,54 @@
+package com.facegram.benchmark;
+
+import com.facegram.model.Post;
+import com.facegram.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Entidades em memória com todas as colunas preenchidas, como chegariam do banco
+final class Fixtures {
+    
+    static final int PAGE_SIZE = 20;
+    
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+    
+    private Fixtures() {}
+    
+    static User user(long id) {
+        User user = new User("Usuário " + id, "user" + id + "@facegram.dev", "$2a$10$abcdefghijklmnopqrstuv");
+        user.setId(id);
+        user.setBio("Fotógrafo amador, café e trilhas no fim de semana");
+        user.setLocation("São Paulo, SP");
+        user.setAvatarUrl("https://images.facegram.dev/avatars/" + id + ".jpg");
+        user.setCoverPhotoUrl("https://images.facegram.dev/covers/" + id + ".jpg");
+        user.setCreatedAt(CREATED_AT.minusDays(id));
+        user.setUpdatedAt(CREATED_AT);
+        user.setPostsCount(120);
+        user.setFollowersCount(3400);
+        user.setFollowingCount(180);
+        return user;
+    }
+    
+    static Post post(long id, User author) {
+        Post post = new Post("Post " + id + ": fim de tarde na praia, com direito a pôr do sol e muito vento. "
+                + "Quem mais estava por lá? #verão #praia", author);
+        post.setId(id);
+        post.setImageUrl("https://images.facegram.dev/posts/" + id + ".jpg");
+        post.setCreatedAt(CREATED_AT.minusMinutes(id));
+        post.setUpdatedAt(CREATED_AT.minusMinutes(id));
+        post.setLikesCount(id * 7 % 500);
+        post.setCommentsCount(id % 40);
+        return post;
+    }
+    
+    // Uma página do feed: autores se repetem, como no feed real
+    static List<Post> page() {
+        List<Post> posts = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            posts.add(post(id, user(id % 7 + 1)));
+        }
+        return posts;
+    }
+}
@@ -0,0 +1,74 @@
+package com.facegram.benchmark;
+
+import com.facegram.dto.PostDTO;
+import com.facegram.dto.UserDTO;
+import com.facegram.mapper.PostMapper;
+import com.facegram.mapper.UserMapper;
+import com.facegram.model.Post;
+import com.facegram.model.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Mapeadores explícitos contra o ModelMapper que a aplicação usava antes, numa página do feed.
+// Para comparar alocação por operação, rode com -prof gc (gc.alloc.rate.norm).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+    
+    private ConfigurableApplicationContext context;
+    private PostMapper postMapper;
+    private UserMapper userMapper;
+    private ModelMapper modelMapper;
+    private List<Post> posts;
+    
+    @Setup
+    public void setUp() {
+        context = FacegramContext.components(UserMapper.class, PostMapper.class);
+        postMapper = context.getBean(PostMapper.class);
+        userMapper = context.getBean(UserMapper.class);
+        modelMapper = new ModelMapper();
+        posts = Fixtures.page();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public void postPage(Blackhole blackhole) {
+        for (Post post : posts) {
+            blackhole.consume(postMapper.toDTO(post));
+        }
+    }
+    
+    @Benchmark
+    public void postPageModelMapper(Blackhole blackhole) {
+        for (Post post : posts) {
+            blackhole.consume(modelMapper.map(post, PostDTO.class));
+        }
+    }
+    
+    @Benchmark
+    public void userPage(Blackhole blackhole) {
+        for (Post post : posts) {
+            blackhole.consume(userMapper.toDTO(post.getUser()));
+        }
+    }
+    
+    @Benchmark
+    public void userPageModelMapper(Blackhole blackhole) {
+        for (Post post : posts) {
+            blackhole.consume(modelMapper.map(post.getUser(), UserDTO.class));
+        }
+    }
+}
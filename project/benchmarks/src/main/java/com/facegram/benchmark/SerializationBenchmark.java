@@ -0,0 +1,65 @@
+package com.facegram.benchmark;
+
+import com.facegram.dto.Cursor;
+import com.facegram.dto.CursorPage;
+import com.facegram.dto.PostDTO;
+import com.facegram.mapper.PostMapper;
+import com.facegram.mapper.UserMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Serialização das respostas do feed com o ObjectMapper configurado pelo application.yml
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private Page<PostDTO> page;
+    private CursorPage<PostDTO> cursorPage;
+    
+    @Setup
+    public void setUp() {
+        context = FacegramContext.components(JacksonAutoConfiguration.class, UserMapper.class, PostMapper.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        
+        PostMapper postMapper = context.getBean(PostMapper.class);
+        List<PostDTO> posts = Fixtures.page().stream()
+                .map(postMapper::toDTO)
+                .collect(Collectors.toList());
+        page = new PageImpl<>(posts, PageRequest.of(0, Fixtures.PAGE_SIZE), 25_000);
+        PostDTO last = posts.get(posts.size() - 1);
+        cursorPage = new CursorPage<>(posts, new Cursor(last.getCreatedAt(), last.getId()).encode());
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    // GET /api/posts?page=0&size=20
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    // GET /api/posts?limit=20
+    @Benchmark
+    public byte[] cursorPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cursorPage);
+    }
+}
@@ -0,0 +1,105 @@
+package com.facegram.benchmark;
+
+import com.facegram.model.User;
+import com.facegram.security.JwtTokenProvider;
+import com.facegram.security.UserPrincipal;
+import com.facegram.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+// Custo de autenticação por requisição: emissão do JWT, verificação com e sem acerto no cache
+// e o caminho anterior ao cache (chave HMAC recriada e token analisado duas vezes por requisição).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+    
+    // Cache bem menor que o anel de tokens: no verifyMiss toda verificação passa pela assinatura
+    private static final int VERIFIED_CACHE_SIZE = 1_000;
+    private static final int MISS_RING_SIZE = 50_000;
+    
+    private ConfigurableApplicationContext context;
+    private JwtTokenProvider jwtTokenProvider;
+    private byte[] secret;
+    private User user;
+    private Authentication authentication;
+    private String token;
+    private String[] ring;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        context = FacegramContext.components(new String[] { "--jwt.cache.max-size=" + VERIFIED_CACHE_SIZE },
+                JwtTokenProvider.class);
+        jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+        secret = context.getEnvironment().getRequiredProperty("jwt.secret").getBytes();
+        
+        user = Fixtures.user(1);
+        authentication = authenticationFor(user);
+        token = jwtTokenProvider.generateToken(authentication);
+        
+        // Um usuário por token, para que nenhum se repita dentro do anel
+        ring = new String[MISS_RING_SIZE];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = jwtTokenProvider.generateToken(authenticationFor(Fixtures.user(i + 2)));
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public String generate() {
+        return jwtTokenProvider.generateToken(authentication);
+    }
+    
+    // Mesmo token a cada requisição: caso comum de um cliente navegando
+    @Benchmark
+    public VerifiedToken verifyHit() {
+        return jwtTokenProvider.verify(token);
+    }
+    
+    @Benchmark
+    public VerifiedToken verifyMiss() {
+        String candidate = ring[next];
+        next = (next + 1) % ring.length;
+        return jwtTokenProvider.verify(candidate);
+    }
+    
+    // Como o filtro fazia antes do cache: validateToken e depois getPrincipalFromToken
+    @Benchmark
+    public Claims verifyLegacy() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+    
+    // Caminho do login e do modo não stateless
+    @Benchmark
+    public UserPrincipal principalCreate() {
+        return UserPrincipal.create(user);
+    }
+    
+    private static Authentication authenticationFor(User user) {
+        UserPrincipal principal = UserPrincipal.create(user);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
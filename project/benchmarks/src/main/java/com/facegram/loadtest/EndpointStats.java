@@ -0,0 +1,62 @@
+package com.facegram.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latências (em microssegundos) das respostas 2xx de um endpoint e contagem das demais por status.
+// Gravado pelas threads do HttpClient; lido uma vez no fim da medição.
+class EndpointStats {
+
+    // Status usado para falhas sem resposta (timeout, conexão recusada)
+    static final int NO_RESPONSE = 0;
+    
+    private final Operation operation;
+    private final Recorder recorder = new Recorder(3);
+    private final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+    private final AtomicLong sent = new AtomicLong();
+    
+    EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+    
+    Operation getOperation() {
+        return operation;
+    }
+    
+    void sent() {
+        sent.incrementAndGet();
+    }
+    
+    long getSent() {
+        return sent.get();
+    }
+    
+    void success(long latencyMicros) {
+        recorder.recordValue(Math.max(1, latencyMicros));
+    }
+    
+    void error(int status) {
+        errorsByStatus.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+    
+    long getErrors() {
+        return errorsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+    
+    Map<Integer, Long> getErrorsByStatus() {
+        Map<Integer, Long> errors = new TreeMap<>();
+        errorsByStatus.forEach((status, count) -> errors.put(status, count.sum()));
+        return errors;
+    }
+    
+    // Chamado uma única vez, depois que todas as respostas da janela de medição chegaram
+    Histogram histogram() {
+        return recorder.getIntervalHistogram();
+    }
+}
@@ -0,0 +1,431 @@
+package com.facegram.loadtest;
+
+import com.facegram.seed.ZipfSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Teste de carga HTTP com taxa de chegada fixa. Sobe a aplicação num processo separado com o perfil
+// seed (ou usa --target), autentica um conjunto de usuários pelo /api/auth/login e dispara a mistura
+// configurada. A latência conta a partir do instante planejado de cada requisição e não do envio:
+// se o servidor atrasa, a espera entra no histograma em vez de reduzir a carga (coordinated omission).
+//
+// Opções (--chave=valor): rate (req/s), warmup e duration (s), users (usuários semeados), sessions,
+// mix (ex.: posts:60,comments:25,likes:10,login:5), zipf-exponent, max-in-flight, timeout (s),
+// target, app-jvm-args, startup-timeout (s), random-seed, out (diretório dos relatórios).
+public class LoadTest {
+
+    private static final String SEED_PASSWORD = "123456";
+    // Registrado pelo SeedDataGenerator ao fim da carga; só então a aplicação está pronta para o teste
+    private static final String SEED_FINISHED = "Seed concluída";
+    
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final SplittableRandom random;
+    private final Duration timeout;
+    private final HttpClient client;
+    
+    private String baseUrl;
+    private long userCount;
+    private long postCount;
+    private ZipfSampler postPopularity;
+    private List<String> tokens;
+    private Operation[] mix;
+    private int[] cumulativeWeights;
+    
+    public LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.random = new SplittableRandom(longOption("random-seed", 42));
+        this.timeout = Duration.ofSeconds(longOption("timeout", 30));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (use --chave=valor): " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+        System.exit(0);
+    }
+    
+    public void run() throws Exception {
+        Path out = Path.of(option("out", "target/loadtest"));
+        Files.createDirectories(out);
+        parseMix(option("mix", "posts:60,comments:25,likes:10,login:5"));
+        userCount = longOption("users", 10000);
+        
+        Process application = null;
+        try {
+            String target = options.get("target");
+            if (target == null) {
+                int port = freePort();
+                application = startApplication(port, out.resolve("app.log"));
+                baseUrl = "http://localhost:" + port;
+            } else {
+                baseUrl = target;
+            }
+            
+            tokens = authenticate((int) longOption("sessions", 200));
+            postCount = countPosts();
+            postPopularity = new ZipfSampler(postCount, Double.parseDouble(option("zipf-exponent", "1.0")));
+            drive();
+            report(out);
+        } finally {
+            if (application != null) {
+                stopApplication(application);
+            }
+        }
+    }
+    
+    private void drive() throws InterruptedException {
+        double rate = Double.parseDouble(option("rate", "100"));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(longOption("warmup", 15));
+        long durationNanos = TimeUnit.SECONDS.toNanos(longOption("duration", 60));
+        long maxInFlight = longOption("max-in-flight", 5000);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        
+        System.out.printf("Carga: %.0f req/s em %s, aquecimento %d s, medição %d s, %d sessões, %d posts%n",
+                rate, baseUrl, TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), tokens.size(), postCount);
+        
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            
+            Operation operation = nextOperation();
+            boolean measured = intended >= measureFrom;
+            if (inFlight.get() >= maxInFlight) {
+                // Servidor saturado: a requisição não sai, mas conta contra o resultado
+                if (measured) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+            send(operation, intended, measured);
+        }
+        
+        // Espera as respostas pendentes, no máximo o timeout de uma requisição
+        long deadline = System.nanoTime() + timeout.toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private void send(Operation operation, long intended, boolean measured) {
+        EndpointStats endpoint = stats.get(operation);
+        if (measured) {
+            endpoint.sent();
+        }
+        inFlight.incrementAndGet();
+        client.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                    inFlight.decrementAndGet();
+                    if (!measured) {
+                        return;
+                    }
+                    if (failure != null) {
+                        endpoint.error(EndpointStats.NO_RESPONSE);
+                    } else if (response.statusCode() / 100 == 2) {
+                        endpoint.success(latencyMicros);
+                    } else {
+                        endpoint.error(response.statusCode());
+                    }
+                });
+    }
+    
+    // Chamado só pela thread que agenda as requisições
+    private HttpRequest request(Operation operation) {
+        switch (operation) {
+            case POSTS:
+                return authorized("/api/posts?page=0&size=20").GET().build();
+            case COMMENTS:
+                return authorized("/api/comments/post/" + postPopularity.sample(random)).GET().build();
+            case LIKES:
+                return authorized("/api/likes/toggle/" + postPopularity.sample(random))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            default:
+                return loginRequest(seedEmail(1 + random.nextLong(userCount)));
+        }
+    }
+    
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + tokens.get(random.nextInt(tokens.size())));
+    }
+    
+    private HttpRequest loginRequest(String email) {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + SEED_PASSWORD + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+    
+    // Sessões espalhadas pelos ids semeados, autenticadas em paralelo antes da carga
+    private List<String> authenticate(int sessions) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                String email = seedEmail(1 + i * userCount / sessions);
+                futures.add(executor.submit(() -> login(email)));
+            }
+            List<String> result = new ArrayList<>();
+            for (Future<String> future : futures) {
+                result.add(future.get());
+            }
+            System.out.printf("%d sessões autenticadas%n", result.size());
+            return result;
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    private String login(String email) throws IOException, InterruptedException {
+        while (true) {
+            HttpResponse<String> response = client.send(loginRequest(email), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                return objectMapper.readTree(response.body()).get("token").asText();
+            }
+            if (response.statusCode() != 429) {
+                throw new IllegalStateException("Login falhou para " + email + ": HTTP " + response.statusCode());
+            }
+            // Pool de BCrypt cheio: respeita o Retry-After e tenta de novo
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfter));
+        }
+    }
+    
+    // Ids dos posts semeados vão de 1 até o total
+    private long countPosts() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(authorized("/api/posts?page=0&size=1").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Não foi possível contar os posts: HTTP " + response.statusCode());
+        }
+        return Math.max(1, objectMapper.readTree(response.body()).get("totalElements").asLong());
+    }
+    
+    private void report(Path out) throws IOException {
+        double seconds = longOption("duration", 60);
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        
+        System.out.printf("%n%-34s %8s %7s %8s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "erros", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram histogram = endpoint.histogram();
+            if (endpoint.getSent() == 0) {
+                continue;
+            }
+            try (PrintStream hgrm = new PrintStream(
+                    Files.newOutputStream(out.resolve(endpoint.getOperation().getKey() + ".hgrm")),
+                    false, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+            
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("endpoint", endpoint.getOperation().getEndpoint());
+            entry.put("sent", endpoint.getSent());
+            entry.put("ok", histogram.getTotalCount());
+            entry.put("errors", endpoint.getErrorsByStatus());
+            entry.put("throughput", histogram.getTotalCount() / seconds);
+            entry.put("p50Ms", percentileMillis(histogram, 50));
+            entry.put("p90Ms", percentileMillis(histogram, 90));
+            entry.put("p99Ms", percentileMillis(histogram, 99));
+            entry.put("p999Ms", percentileMillis(histogram, 99.9));
+            entry.put("maxMs", histogram.getMaxValue() / 1000.0);
+            endpoints.add(entry);
+            
+            System.out.printf("%-34s %8d %7d %8.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.getOperation().getEndpoint(), histogram.getTotalCount(), endpoint.getErrors(),
+                    histogram.getTotalCount() / seconds, percentileMillis(histogram, 50),
+                    percentileMillis(histogram, 99), percentileMillis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+        }
+        if (dropped.get() > 0) {
+            System.out.printf("%d requisições não enviadas (max-in-flight atingido)%n", dropped.get());
+        }
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("target", baseUrl);
+        summary.put("rate", Double.parseDouble(option("rate", "100")));
+        summary.put("warmupSeconds", longOption("warmup", 15));
+        summary.put("durationSeconds", longOption("duration", 60));
+        summary.put("sessions", tokens.size());
+        summary.put("mix", option("mix", "posts:60,comments:25,likes:10,login:5"));
+        summary.put("dropped", dropped.get());
+        summary.put("endpoints", endpoints);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(out.resolve("summary.json").toFile(), summary);
+        System.out.printf("Relatórios em %s (summary.json e um .hgrm por endpoint)%n", out.toAbsolutePath());
+    }
+    
+    private Process startApplication(int port, Path logFile) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        // Saída em UTF-8 independente do locale, para reconhecer a linha de fim da seed
+        command.add("-Dfile.encoding=UTF-8");
+        command.add("-Dstdout.encoding=UTF-8");
+        String jvmArgs = option("app-jvm-args", "-Xmx1g");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(List.of(jvmArgs.trim().split("\\s+")));
+        }
+        command.addAll(List.of(
+                "-cp", System.getProperty("java.class.path"),
+                "com.facegram.FacegramApiApplication",
+                "--server.port=" + port,
+                "--spring.profiles.active=seed",
+                "--facegram.seed.users=" + userCount,
+                "--spring.jpa.show-sql=false"));
+        
+        System.out.printf("Subindo a aplicação na porta %d com %d usuários semeados (log em %s)%n",
+                port, userCount, logFile);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        CountDownLatch seeded = new CountDownLatch(1);
+        Thread output = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                         new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+                 BufferedWriter log = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.write(line);
+                    log.newLine();
+                    if (line.contains(SEED_FINISHED)) {
+                        log.flush();
+                        seeded.countDown();
+                    }
+                }
+            } catch (IOException ex) {
+                // Processo encerrado; o log fica como está
+            }
+        }, "application-output");
+        output.setDaemon(true);
+        output.start();
+        
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(longOption("startup-timeout", 600));
+        while (!seeded.await(1, TimeUnit.SECONDS)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("A aplicação terminou durante a subida; veja " + logFile);
+            }
+            if (System.nanoTime() > deadline) {
+                process.destroyForcibly();
+                throw new IllegalStateException("A aplicação não ficou pronta a tempo; veja " + logFile);
+            }
+        }
+        return process;
+    }
+    
+    private void stopApplication(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+    
+    private void parseMix(String value) {
+        List<Operation> operations = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            int weight = Integer.parseInt(pair[1]);
+            if (weight > 0) {
+                operations.add(Operation.fromKey(pair[0]));
+                weights.add(weight);
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Mistura sem operações: " + value);
+        }
+        mix = operations.toArray(new Operation[0]);
+        cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            total += weights.get(i);
+            cumulativeWeights[i] = total;
+        }
+    }
+    
+    private Operation nextOperation() {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return mix[i];
+            }
+        }
+        return mix[mix.length - 1];
+    }
+    
+    private static double percentileMillis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    private static String seedEmail(long userId) {
+        return "seed" + userId + "@facegram.dev";
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+    
+    private long longOption(String name, long defaultValue) {
+        return Long.parseLong(option(name, Long.toString(defaultValue)));
+    }
+}
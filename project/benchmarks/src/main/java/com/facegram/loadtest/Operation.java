@@ -0,0 +1,35 @@
+package com.facegram.loadtest;
+
+// Endpoints exercitados pelo LoadTest; o nome é usado na mistura (--mix) e nos relatórios
+enum Operation {
+
+    POSTS("posts", "GET /api/posts"),
+    COMMENTS("comments", "GET /api/comments/post/{postId}"),
+    LIKES("likes", "POST /api/likes/toggle/{postId}"),
+    LOGIN("login", "POST /api/auth/login");
+    
+    private final String key;
+    private final String endpoint;
+    
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+    
+    String getKey() {
+        return key;
+    }
+    
+    String getEndpoint() {
+        return endpoint;
+    }
+    
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operação desconhecida na mistura: " + key);
+    }
+}
@@ -0,0 +1,55 @@
+package com.facegram.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Caches locais limitados por tamanho e TTL, com estatísticas de acerto/erro/remoção
+// expostas pelo actuator (cache.gets, cache.evictions...)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    public static final String USERS = "users";
+    public static final String USER_PRINCIPALS = "userPrincipals";
+    public static final String POSTS = "posts";
+    
+    @Value("${facegram.cache.users.max-size:100000}")
+    private long usersMaxSize;
+    
+    @Value("${facegram.cache.users.ttl-seconds:600}")
+    private long usersTtlSeconds;
+    
+    @Value("${facegram.cache.posts.max-size:50000}")
+    private long postsMaxSize;
+    
+    @Value("${facegram.cache.posts.ttl-seconds:300}")
+    private long postsTtlSeconds;
+    
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(USERS, buildCache(usersMaxSize, usersTtlSeconds));
+        cacheManager.registerCustomCache(USER_PRINCIPALS, buildCache(usersMaxSize, usersTtlSeconds));
+        cacheManager.registerCustomCache(POSTS, buildCache(postsMaxSize, postsTtlSeconds));
+        
+        // Remoções e inclusões só valem após o commit, para uma leitura concorrente
+        // não recolocar no cache o estado anterior à escrita
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+    
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> buildCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
@@ -1,19 +1,27 @@
 package com.facegram.config;
 
 import com.facegram.model.Comment;
+import com.facegram.model.Follow;
 import com.facegram.model.Like;
 import com.facegram.model.Post;
 import com.facegram.model.User;
 import com.facegram.repository.CommentRepository;
+import com.facegram.repository.FollowRepository;
 import com.facegram.repository.LikeRepository;
 import com.facegram.repository.PostRepository;
 import com.facegram.repository.UserRepository;
+import com.facegram.service.CounterReconciliationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+// Dados de exemplo apenas fora de produção; o perfil seed usa o gerador de carga
 @Component
+@Profile("!prod & !seed")
 public class DataInitializer implements CommandLineRunner {
     
     @Autowired
@@ -28,9 +36,15 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private LikeRepository likeRepository;
     
+    @Autowired
+    private FollowRepository followRepository;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private CounterReconciliationService counterReconciliationService;
+    
     @Override
     public void run(String... args) throws Exception {
         // Criar usuários de exemplo
@@ -85,41 +99,41 @@ public class DataInitializer implements CommandLineRunner {
         comment1.setContent("Que foto incrível! Onde foi tirada?");
         comment1.setUser(ana);
         comment1.setPost(post1);
-        commentRepository.save(comment1);
         
         Comment comment2 = new Comment();
         comment2.setContent("Parabéns pelo projeto! Ficou sensacional!");
         comment2.setUser(maria);
         comment2.setPost(post2);
-        commentRepository.save(comment2);
         
         Comment comment3 = new Comment();
         comment3.setContent("Suas fotos sempre me inspiram!");
         comment3.setUser(joao);
         comment3.setPost(post3);
-        commentRepository.save(comment3);
-        
-        // Criar curtidas de exemplo
-        Like like1 = new Like(maria, post1);
-        likeRepository.save(like1);
-        
-        Like like2 = new Like(ana, post1);
-        likeRepository.save(like2);
-        
-        Like like3 = new Like(maria, post2);
-        likeRepository.save(like3);
         
-        Like like4 = new Like(joao, post2);
-        likeRepository.save(like4);
+        // saveAll: com ids de sequência o Hibernate agrupa os INSERTs em lote
+        commentRepository.saveAll(List.of(comment1, comment2, comment3));
         
-        Like like5 = new Like(ana, post2);
-        likeRepository.save(like5);
-        
-        Like like6 = new Like(joao, post3);
-        likeRepository.save(like6);
-        
-        Like like7 = new Like(ana, post3);
-        likeRepository.save(like7);
+        // Criar curtidas de exemplo
+        likeRepository.saveAll(List.of(
+            new Like(maria, post1),
+            new Like(ana, post1),
+            new Like(maria, post2),
+            new Like(joao, post2),
+            new Like(ana, post2),
+            new Like(joao, post3),
+            new Like(ana, post3)
+        ));
+        
+        // Criar conexões de exemplo
+        followRepository.saveAll(List.of(
+            new Follow(maria, joao),
+            new Follow(maria, ana),
+            new Follow(joao, maria),
+            new Follow(ana, maria)
+        ));
+        
+        // Os dados acima são gravados direto nos repositórios; sincroniza os contadores
+        counterReconciliationService.reconcileAll();
         
         System.out.println("✅ Dados de exemplo criados com sucesso!");
         System.out.println("👤 Usuários: maria@example.com, joao@example.com, ana@example.com");
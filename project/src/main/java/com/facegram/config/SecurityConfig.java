@@ -1,8 +1,11 @@
 package com.facegram.config;
 
+import com.facegram.security.BoundedPasswordEncoder;
 import com.facegram.security.CustomUserDetailsService;
 import com.facegram.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,7 +15,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -33,9 +35,26 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${facegram.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+    
+    @Value("${facegram.security.password-hashing.threads:0}")
+    private int hashingThreads;
+    
+    @Value("${facegram.security.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+    
+    @Value("${facegram.security.password-hashing.max-wait-ms:5000}")
+    private long hashingMaxWaitMillis;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(bcryptStrength, threads, hashingQueueCapacity, hashingMaxWaitMillis,
+                meterRegistry);
     }
     
     @Bean
@@ -43,6 +62,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(customUserDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Hash gravado com outro custo é regravado no login bem-sucedido
+        authProvider.setUserDetailsPasswordService(customUserDetailsService);
         return authProvider;
     }
     
@@ -59,6 +80,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
+                // Health check e scrape do Prometheus; em produção, acessíveis só pela rede interna
+                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             );
         
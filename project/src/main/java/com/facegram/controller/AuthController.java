@@ -3,10 +3,13 @@ package com.facegram.controller;
 import com.facegram.dto.AuthResponse;
 import com.facegram.dto.LoginRequest;
 import com.facegram.dto.RegisterRequest;
+import com.facegram.metrics.SqlBudget;
+import com.facegram.security.UserPrincipal;
 import com.facegram.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -18,14 +21,27 @@ public class AuthController {
     private AuthService authService;
     
     @PostMapping("/login")
+    @SqlBudget(3)
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
         AuthResponse response = authService.login(loginRequest);
         return ResponseEntity.ok(response);
     }
     
     @PostMapping("/register")
+    @SqlBudget(5)
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
         AuthResponse response = authService.register(registerRequest);
         return ResponseEntity.ok(response);
     }
+    
+    @PostMapping("/logout")
+    @SqlBudget(3)
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (userPrincipal == null) {
+            throw new RuntimeException("Usuário não autenticado");
+        }
+        
+        authService.logout(userPrincipal.getId());
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.facegram.controller;
 
 import com.facegram.dto.CommentDTO;
+import com.facegram.dto.CursorPage;
+import com.facegram.metrics.SqlBudget;
 import com.facegram.security.UserPrincipal;
 import com.facegram.service.CommentService;
 import jakarta.validation.Valid;
@@ -10,6 +12,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/comments")
@@ -20,6 +23,7 @@ public class CommentController {
     private CommentService commentService;
     
     @PostMapping
+    @SqlBudget(6)
     public ResponseEntity<CommentDTO> createComment(
             @Valid @RequestBody CommentDTO commentDTO,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -32,19 +36,41 @@ public class CommentController {
         return ResponseEntity.ok(createdComment);
     }
     
+    // Sem limit a resposta é a primeira página do cursor, nunca a lista inteira
     @GetMapping("/post/{postId}")
-    public ResponseEntity<List<CommentDTO>> getCommentsByPostId(@PathVariable Long postId) {
-        List<CommentDTO> comments = commentService.getCommentsByPostId(postId);
+    @SqlBudget(3)
+    public ResponseEntity<CursorPage<CommentDTO>> getCommentsByPostId(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        CursorPage<CommentDTO> comments = commentService.getCommentsByPostIdAfter(postId, after, limit);
         return ResponseEntity.ok(comments);
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<CommentDTO>> getCommentsByUserId(@PathVariable Long userId) {
-        List<CommentDTO> comments = commentService.getCommentsByUserId(userId);
+    @SqlBudget(3)
+    public ResponseEntity<CursorPage<CommentDTO>> getCommentsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        CursorPage<CommentDTO> comments = commentService.getCommentsByUserIdAfter(userId, after, limit);
         return ResponseEntity.ok(comments);
     }
     
+    @GetMapping("/preview")
+    @SqlBudget(3)
+    public ResponseEntity<Map<Long, List<CommentDTO>>> getCommentPreviews(
+            @RequestParam List<Long> postIds,
+            @RequestParam(defaultValue = "3") int limit) {
+        
+        Map<Long, List<CommentDTO>> previews = commentService.getCommentPreviews(postIds, limit);
+        return ResponseEntity.ok(previews);
+    }
+    
     @PutMapping("/{id}")
+    @SqlBudget(3)
     public ResponseEntity<CommentDTO> updateComment(
             @PathVariable Long id,
             @Valid @RequestBody CommentDTO commentDTO,
@@ -59,6 +85,7 @@ public class CommentController {
     }
     
     @DeleteMapping("/{id}")
+    @SqlBudget(4)
     public ResponseEntity<Void> deleteComment(
             @PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
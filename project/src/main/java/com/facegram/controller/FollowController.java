@@ -0,0 +1,56 @@
+package com.facegram.controller;
+
+import com.facegram.metrics.SqlBudget;
+import com.facegram.security.UserPrincipal;
+import com.facegram.service.FollowService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/follows")
+@CrossOrigin(origins = "*")
+public class FollowController {
+    
+    @Autowired
+    private FollowService followService;
+    
+    @PostMapping("/{userId}")
+    @SqlBudget(8)
+    public ResponseEntity<Map<String, Object>> follow(
+            @PathVariable Long userId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        followService.follow(userPrincipal.getId(), userId);
+        return ResponseEntity.ok(Map.of(
+            "isFollowing", true,
+            "message", "Agora você segue este usuário"
+        ));
+    }
+    
+    @DeleteMapping("/{userId}")
+    @SqlBudget(5)
+    public ResponseEntity<Map<String, Object>> unfollow(
+            @PathVariable Long userId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        followService.unfollow(userPrincipal.getId(), userId);
+        return ResponseEntity.ok(Map.of(
+            "isFollowing", false,
+            "message", "Você deixou de seguir este usuário"
+        ));
+    }
+    
+    @GetMapping("/check/{userId}")
+    @SqlBudget(2)
+    public ResponseEntity<Map<String, Boolean>> checkFollow(
+            @PathVariable Long userId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        boolean isFollowing = followService.isFollowing(userPrincipal.getId(), userId);
+        return ResponseEntity.ok(Map.of("isFollowing", isFollowing));
+    }
+}
@@ -1,5 +1,6 @@
 package com.facegram.controller;
 
+import com.facegram.metrics.SqlBudget;
 import com.facegram.security.UserPrincipal;
 import com.facegram.service.LikeService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +19,7 @@ public class LikeController {
     private LikeService likeService;
     
     @PostMapping("/toggle/{postId}")
+    @SqlBudget(5)
     public ResponseEntity<Map<String, Object>> toggleLike(
             @PathVariable Long postId,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -30,7 +32,28 @@ public class LikeController {
         ));
     }
     
+    @PutMapping("/{postId}")
+    @SqlBudget(4)
+    public ResponseEntity<Map<String, Object>> like(
+            @PathVariable Long postId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        long likesCount = likeService.like(postId, userPrincipal.getId());
+        return ResponseEntity.ok(Map.of("isLiked", true, "likesCount", likesCount));
+    }
+    
+    @DeleteMapping("/{postId}")
+    @SqlBudget(4)
+    public ResponseEntity<Map<String, Object>> unlike(
+            @PathVariable Long postId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        long likesCount = likeService.unlike(postId, userPrincipal.getId());
+        return ResponseEntity.ok(Map.of("isLiked", false, "likesCount", likesCount));
+    }
+    
     @GetMapping("/check/{postId}")
+    @SqlBudget(2)
     public ResponseEntity<Map<String, Boolean>> checkLike(
             @PathVariable Long postId,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -1,8 +1,11 @@
 package com.facegram.controller;
 
+import com.facegram.dto.CursorPage;
 import com.facegram.dto.PostDTO;
+import com.facegram.metrics.SqlBudget;
 import com.facegram.security.UserPrincipal;
 import com.facegram.service.PostService;
+import com.facegram.timeline.TimelineService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -18,7 +21,11 @@ public class PostController {
     @Autowired
     private PostService postService;
     
+    @Autowired
+    private TimelineService timelineService;
+    
     @PostMapping
+    @SqlBudget(6)
     public ResponseEntity<PostDTO> createPost(
             @Valid @RequestBody PostDTO postDTO,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -32,6 +39,7 @@ public class PostController {
     }
     
     @GetMapping
+    @SqlBudget(5)
     public ResponseEntity<Page<PostDTO>> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -41,7 +49,42 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
     
+    @GetMapping("/search")
+    @SqlBudget(4)
+    public ResponseEntity<Page<PostDTO>> searchPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        Page<PostDTO> posts = postService.searchPosts(q, page, size, userPrincipal.getId());
+        return ResponseEntity.ok(posts);
+    }
+    
+    @GetMapping(params = "limit")
+    @SqlBudget(5)
+    public ResponseEntity<CursorPage<PostDTO>> getPostsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        CursorPage<PostDTO> posts = postService.getPostsAfter(after, limit, userPrincipal.getId());
+        return ResponseEntity.ok(posts);
+    }
+    
+    @GetMapping("/home")
+    @SqlBudget(6)
+    public ResponseEntity<CursorPage<PostDTO>> getHomeTimeline(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        CursorPage<PostDTO> posts = timelineService.getHomeTimeline(userPrincipal.getId(), after, limit);
+        return ResponseEntity.ok(posts);
+    }
+    
     @GetMapping("/{id}")
+    @SqlBudget(4)
     public ResponseEntity<PostDTO> getPostById(
             @PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -52,6 +95,7 @@ public class PostController {
     }
     
     @GetMapping("/user/{userId}")
+    @SqlBudget(5)
     public ResponseEntity<Page<PostDTO>> getPostsByUserId(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
@@ -62,7 +106,20 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
     
+    @GetMapping(value = "/user/{userId}", params = "limit")
+    @SqlBudget(5)
+    public ResponseEntity<CursorPage<PostDTO>> getPostsByUserIdAfter(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        CursorPage<PostDTO> posts = postService.getPostsByUserIdAfter(userId, after, limit, userPrincipal.getId());
+        return ResponseEntity.ok(posts);
+    }
+    
     @PutMapping("/{id}")
+    @SqlBudget(4)
     public ResponseEntity<PostDTO> updatePost(
             @PathVariable Long id,
             @Valid @RequestBody PostDTO postDTO,
@@ -78,6 +135,7 @@ public class PostController {
     }
     
     @DeleteMapping("/{id}")
+    @SqlBudget(6)
     public ResponseEntity<Void> deletePost(
             @PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -1,13 +1,18 @@
 package com.facegram.controller;
 
+import com.facegram.dto.CursorPage;
 import com.facegram.dto.UserDTO;
+import com.facegram.metrics.SqlBudget;
 import com.facegram.security.UserPrincipal;
 import com.facegram.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,6 +25,7 @@ public class UserController {
     private UserService userService;
     
     @GetMapping("/me")
+    @SqlBudget(2)
     public ResponseEntity<UserDTO> getCurrentUser(@AuthenticationPrincipal UserPrincipal userPrincipal) {
         UserDTO user = userService.getUserById(userPrincipal.getId())
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
@@ -27,25 +33,57 @@ public class UserController {
     }
     
     @GetMapping("/{id}")
+    @SqlBudget(2)
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
         UserDTO user = userService.getUserById(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
         return ResponseEntity.ok(user);
     }
     
+    // Sem limit a resposta é a primeira página do cursor; a lista completa fica no /export
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
+    @SqlBudget(2)
+    public ResponseEntity<CursorPage<UserDTO>> getUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        CursorPage<UserDTO> users = userService.getUsersAfter(after, limit);
         return ResponseEntity.ok(users);
     }
     
+    // Download de todos os usuários, escrito aos poucos na resposta
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = userService::exportUsers;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.json\"")
+                .body(body);
+    }
+    
     @GetMapping("/search")
-    public ResponseEntity<List<UserDTO>> searchUsers(@RequestParam String name) {
-        List<UserDTO> users = userService.searchUsersByName(name);
+    @SqlBudget(2)
+    public ResponseEntity<List<UserDTO>> searchUsers(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        List<UserDTO> users = userService.searchUsersByName(name, page, size);
+        return ResponseEntity.ok(users);
+    }
+    
+    @GetMapping("/autocomplete")
+    @SqlBudget(2)
+    public ResponseEntity<List<UserDTO>> autocompleteUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<UserDTO> users = userService.autocompleteUsers(q, limit);
         return ResponseEntity.ok(users);
     }
     
     @PutMapping("/{id}")
+    @SqlBudget(3)
     public ResponseEntity<UserDTO> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UserDTO userDTO,
@@ -59,7 +97,9 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
     
+    // Custo fixo: consultas de desconto dos contadores e um DELETE por tabela, qualquer que seja o volume
     @DeleteMapping("/{id}")
+    @SqlBudget(15)
     public ResponseEntity<Void> deleteUser(
             @PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -0,0 +1,44 @@
+package com.facegram.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Posição opaca na paginação por chave (created_at, id)
+public class Cursor {
+    
+    // Posições antes do primeiro item das listagens; a primeira página usa a mesma consulta
+    // com cursor das seguintes, que o H2 só atende pelo índice composto com a faixa em created_at
+    public static final Cursor NEWEST = new Cursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+    public static final Cursor OLDEST = new Cursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+    
+    private final LocalDateTime createdAt;
+    private final Long id;
+    
+    public Cursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+    
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static Cursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Cursor inválido");
+        }
+    }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    
+    public Long getId() { return id; }
+}
@@ -24,6 +24,8 @@ public class UserDTO {
     private String coverPhotoUrl;
     private LocalDateTime createdAt;
     private Long postsCount;
+    private Long followersCount;
+    private Long followingCount;
     
     // Construtores
     public UserDTO() {}
@@ -61,4 +63,10 @@ public class UserDTO {
     
     public Long getPostsCount() { return postsCount; }
     public void setPostsCount(Long postsCount) { this.postsCount = postsCount; }
+    
+    public Long getFollowersCount() { return followersCount; }
+    public void setFollowersCount(Long followersCount) { this.followersCount = followersCount; }
+    
+    public Long getFollowingCount() { return followingCount; }
+    public void setFollowingCount(Long followingCount) { this.followingCount = followingCount; }
 }
\ No newline at end of file
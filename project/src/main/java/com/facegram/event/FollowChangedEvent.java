@@ -0,0 +1,16 @@
+package com.facegram.event;
+
+public class FollowChangedEvent {
+    
+    private final Long followerId;
+    private final Long followedId;
+    
+    public FollowChangedEvent(Long followerId, Long followedId) {
+        this.followerId = followerId;
+        this.followedId = followedId;
+    }
+    
+    public Long getFollowerId() { return followerId; }
+    
+    public Long getFollowedId() { return followedId; }
+}
@@ -0,0 +1,26 @@
+package com.facegram.event;
+
+import java.time.LocalDateTime;
+
+public class PostCreatedEvent {
+    
+    private final Long postId;
+    private final Long authorId;
+    private final String content;
+    private final LocalDateTime createdAt;
+    
+    public PostCreatedEvent(Long postId, Long authorId, String content, LocalDateTime createdAt) {
+        this.postId = postId;
+        this.authorId = authorId;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+    
+    public Long getPostId() { return postId; }
+    
+    public Long getAuthorId() { return authorId; }
+    
+    public String getContent() { return content; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
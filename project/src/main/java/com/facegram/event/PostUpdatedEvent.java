@@ -0,0 +1,16 @@
+package com.facegram.event;
+
+public class PostUpdatedEvent {
+    
+    private final Long postId;
+    private final String content;
+    
+    public PostUpdatedEvent(Long postId, String content) {
+        this.postId = postId;
+        this.content = content;
+    }
+    
+    public Long getPostId() { return postId; }
+    
+    public String getContent() { return content; }
+}
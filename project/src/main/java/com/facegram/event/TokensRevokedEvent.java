@@ -0,0 +1,17 @@
+package com.facegram.event;
+
+public class TokensRevokedEvent {
+    
+    private final Long userId;
+    // Versão que os tokens passam a precisar ter
+    private final int tokenVersion;
+    
+    public TokensRevokedEvent(Long userId, int tokenVersion) {
+        this.userId = userId;
+        this.tokenVersion = tokenVersion;
+    }
+    
+    public Long getUserId() { return userId; }
+    
+    public int getTokenVersion() { return tokenVersion; }
+}
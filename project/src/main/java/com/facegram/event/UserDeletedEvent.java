@@ -0,0 +1,19 @@
+package com.facegram.event;
+
+import java.util.List;
+
+public class UserDeletedEvent {
+    
+    private final Long userId;
+    // Posts removidos em cascata junto com o usuário
+    private final List<Long> postIds;
+    
+    public UserDeletedEvent(Long userId, List<Long> postIds) {
+        this.userId = userId;
+        this.postIds = postIds;
+    }
+    
+    public Long getUserId() { return userId; }
+    
+    public List<Long> getPostIds() { return postIds; }
+}
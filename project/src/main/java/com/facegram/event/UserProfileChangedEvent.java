@@ -0,0 +1,17 @@
+package com.facegram.event;
+
+// Publicado no cadastro e em cada edição de perfil
+public class UserProfileChangedEvent {
+    
+    private final Long userId;
+    private final String name;
+    
+    public UserProfileChangedEvent(Long userId, String name) {
+        this.userId = userId;
+        this.name = name;
+    }
+    
+    public Long getUserId() { return userId; }
+    
+    public String getName() { return name; }
+}
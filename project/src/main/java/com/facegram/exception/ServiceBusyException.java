@@ -0,0 +1,9 @@
+package com.facegram.exception;
+
+// Recurso saturado no momento; respondida com 429 para o cliente tentar de novo depois
+public class ServiceBusyException extends RuntimeException {
+    
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.facegram.exception;
+
+// Requisição passou do @SqlBudget do endpoint com facegram.sql-budget.enforcement=fail
+public class SqlBudgetExceededException extends RuntimeException {
+    
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.facegram.mapper;
+
+import com.facegram.dto.CommentDTO;
+import com.facegram.model.Comment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CommentMapper {
+    
+    @Autowired
+    private UserMapper userMapper;
+    
+    public CommentDTO toDTO(Comment comment) {
+        if (comment == null) {
+            return null;
+        }
+        
+        CommentDTO commentDTO = new CommentDTO(comment.getId(), comment.getContent(), userMapper.toDTO(comment.getUser()));
+        commentDTO.setCreatedAt(comment.getCreatedAt());
+        commentDTO.setUpdatedAt(comment.getUpdatedAt());
+        // getId() no proxy do post não dispara o SELECT
+        commentDTO.setPostId(comment.getPost() != null ? comment.getPost().getId() : null);
+        return commentDTO;
+    }
+}
@@ -0,0 +1,38 @@
+package com.facegram.mapper;
+
+import com.facegram.dto.PostDTO;
+import com.facegram.model.Post;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Mapeamento explícito: contagens vêm das colunas, comentários e curtidas não são tocados
+@Component
+public class PostMapper {
+    
+    @Autowired
+    private UserMapper userMapper;
+    
+    // O autor precisa estar carregado (JOIN FETCH) para ser mapeado por completo
+    public PostDTO toDTO(Post post) {
+        PostDTO postDTO = toBody(post);
+        if (postDTO != null) {
+            postDTO.setUser(userMapper.toDTO(post.getUser()));
+        }
+        return postDTO;
+    }
+    
+    // Corpo do post com o autor reduzido ao id, como fica no cache de posts
+    public PostDTO toBody(Post post) {
+        if (post == null) {
+            return null;
+        }
+        
+        PostDTO postDTO = new PostDTO(post.getId(), post.getContent(), userMapper.toReference(post.getUser()));
+        postDTO.setImageUrl(post.getImageUrl());
+        postDTO.setCreatedAt(post.getCreatedAt());
+        postDTO.setUpdatedAt(post.getUpdatedAt());
+        postDTO.setLikesCount(post.getLikesCount());
+        postDTO.setCommentsCount(post.getCommentsCount());
+        return postDTO;
+    }
+}
@@ -0,0 +1,32 @@
+package com.facegram.mapper;
+
+import com.facegram.dto.UserDTO;
+import com.facegram.model.User;
+import org.springframework.stereotype.Component;
+
+// Mapeamento explícito: só lê colunas, nunca as coleções lazy do usuário
+@Component
+public class UserMapper {
+    
+    public UserDTO toDTO(User user) {
+        if (user == null) {
+            return null;
+        }
+        
+        UserDTO userDTO = new UserDTO(user.getId(), user.getName(), user.getEmail());
+        userDTO.setBio(user.getBio());
+        userDTO.setLocation(user.getLocation());
+        userDTO.setAvatarUrl(user.getAvatarUrl());
+        userDTO.setCoverPhotoUrl(user.getCoverPhotoUrl());
+        userDTO.setCreatedAt(user.getCreatedAt());
+        userDTO.setPostsCount(user.getPostsCount());
+        userDTO.setFollowersCount(user.getFollowersCount());
+        userDTO.setFollowingCount(user.getFollowingCount());
+        return userDTO;
+    }
+    
+    // Apenas o id, lido do proxy sem inicializá-lo
+    public UserDTO toReference(User user) {
+        return user == null ? null : new UserDTO(user.getId(), null, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.facegram.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Máximo de comandos SQL que uma requisição ao endpoint pode executar, autenticação incluída.
+// Em métodos ou na classe do controller; o do método prevalece. Conferido pelo SqlStatementMetricsFilter
+// conforme facegram.sql-budget.enforcement: off, log (registra a requisição e as consultas) ou fail.
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface SqlBudget {
+    
+    int value();
+}
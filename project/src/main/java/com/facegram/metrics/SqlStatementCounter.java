@@ -0,0 +1,89 @@
+package com.facegram.metrics;
+
+import com.facegram.exception.SqlBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Conta os comandos SQL que o Hibernate prepara na thread atual entre start() e stop().
+// Fora de uma requisição (jobs agendados, carga inicial) nada é contado. Consultas feitas
+// direto pelo JdbcTemplate não passam pelo Hibernate e ficam de fora.
+public class SqlStatementCounter implements StatementInspector {
+    
+    // Endpoint sem @SqlBudget
+    public static final int UNLIMITED = -1;
+    
+    // Consultas guardadas por requisição para o log; as demais só entram na contagem
+    private static final int MAX_CAPTURED = 50;
+    
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+    
+    // capture: guarda o texto das consultas; enforce: falha no comando que passar do orçamento
+    public static void start(boolean capture, boolean enforce) {
+        SCOPE.set(new Scope(capture, enforce));
+    }
+    
+    public static void setBudget(int budget) {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.budget = budget;
+        }
+    }
+    
+    public static Scope stop() {
+        Scope scope = SCOPE.get();
+        SCOPE.remove();
+        return scope;
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.add(sql);
+        }
+        return sql;
+    }
+    
+    public static final class Scope {
+        
+        private final List<String> statements;
+        private final boolean enforce;
+        private long count;
+        private int budget = UNLIMITED;
+        
+        private Scope(boolean capture, boolean enforce) {
+            this.statements = capture ? new ArrayList<>() : null;
+            this.enforce = enforce;
+        }
+        
+        private void add(String sql) {
+            count++;
+            if (statements != null && statements.size() < MAX_CAPTURED) {
+                statements.add(sql);
+            }
+            if (enforce && isOverBudget()) {
+                throw new SqlBudgetExceededException(
+                        "Orçamento de SQL excedido: " + count + " comandos, limite " + budget);
+            }
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public int getBudget() {
+            return budget;
+        }
+        
+        public boolean isOverBudget() {
+            return budget != UNLIMITED && count > budget;
+        }
+        
+        public List<String> getStatements() {
+            return statements == null ? Collections.emptyList() : statements;
+        }
+    }
+}
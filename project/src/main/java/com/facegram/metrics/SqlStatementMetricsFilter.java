@@ -0,0 +1,69 @@
+package com.facegram.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Comandos SQL por requisição, por rota: um N+1 novo aparece como salto na distribuição
+// de facegram.http.sql.statements. Roda antes do Spring Security para incluir a autenticação.
+// Requisições acima do @SqlBudget do endpoint são contadas e, no modo log ou fail, registradas
+// com as consultas executadas.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // off: só a métrica; log: registra quem passar do orçamento; fail: a requisição falha (testes)
+    @Value("${facegram.sql-budget.enforcement:log}")
+    private String enforcement;
+    
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean enforce = "fail".equalsIgnoreCase(enforcement);
+        boolean capture = enforce || "log".equalsIgnoreCase(enforcement);
+        SqlStatementCounter.start(capture, enforce);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.Scope statements = SqlStatementCounter.stop();
+            // Padrão da rota (/api/posts/{id}) e não a URL, para não criar uma série por id
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+            DistributionSummary.builder("facegram.http.sql.statements")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements.getCount());
+            
+            if (statements.isOverBudget()) {
+                meterRegistry.counter("facegram.http.sql.budget.exceeded", "method", request.getMethod(), "uri", uri)
+                        .increment();
+                if (capture) {
+                    logger.warn("Orçamento de SQL excedido em " + request.getMethod() + " " + uri + ": "
+                            + statements.getCount() + " comandos, limite " + statements.getBudget() + "\n"
+                            + String.join("\n", statements.getStatements()));
+                }
+            }
+        }
+    }
+}
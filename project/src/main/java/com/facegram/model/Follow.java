@@ -0,0 +1,55 @@
+package com.facegram.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "follows", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_follows_follower_followed", columnNames = {"follower_id", "followed_id"})
+}, indexes = {
+    @Index(name = "idx_follows_followed_follower", columnList = "followed_id, follower_id")
+})
+public class Follow {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "follows_seq")
+    @SequenceGenerator(name = "follows_seq", sequenceName = "follows_seq", allocationSize = 50)
+    private Long id;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Relacionamento N:1 - Usuário que segue
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id", nullable = false)
+    private User follower;
+    
+    // Relacionamento N:1 - Usuário seguido
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "followed_id", nullable = false)
+    private User followed;
+    
+    // Construtores
+    public Follow() {}
+    
+    public Follow(User follower, User followed) {
+        this.follower = follower;
+        this.followed = followed;
+    }
+    
+    // Getters e Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public User getFollower() { return follower; }
+    public void setFollower(User follower) { this.follower = follower; }
+    
+    public User getFollowed() { return followed; }
+    public void setFollowed(User followed) { this.followed = followed; }
+}
@@ -7,12 +7,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "likes", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"user_id", "post_id"})
+    @UniqueConstraint(name = "uk_likes_user_post", columnNames = {"user_id", "post_id"})
+}, indexes = {
+    @Index(name = "idx_likes_post_id", columnList = "post_id")
 })
 public class Like {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "likes_seq")
+    @SequenceGenerator(name = "likes_seq", sequenceName = "likes_seq", allocationSize = 50)
     private Long id;
     
     @CreationTimestamp
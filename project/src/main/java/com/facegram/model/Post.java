@@ -12,11 +12,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_created_at_id", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_posts_user_created_at_id", columnList = "user_id, created_at DESC, id DESC")
+})
 public class Post {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Conteúdo é obrigatório")
@@ -35,6 +39,13 @@ public class Post {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Contadores desnormalizados, mantidos apenas por UPDATEs atômicos no repositório
+    @Column(name = "likes_count", nullable = false, updatable = false)
+    private long likesCount = 0;
+    
+    @Column(name = "comments_count", nullable = false, updatable = false)
+    private long commentsCount = 0;
+    
     // Relacionamento N:1 - Muitos posts pertencem a um usuário
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -74,6 +85,12 @@ public class Post {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public long getLikesCount() { return likesCount; }
+    public void setLikesCount(long likesCount) { this.likesCount = likesCount; }
+    
+    public long getCommentsCount() { return commentsCount; }
+    public void setCommentsCount(long commentsCount) { this.commentsCount = commentsCount; }
+    
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
     
@@ -82,14 +99,4 @@ public class Post {
     
     public List<Like> getLikes() { return likes; }
     public void setLikes(List<Like> likes) { this.likes = likes; }
-    
-    // Método auxiliar para contar curtidas
-    public int getLikesCount() {
-        return likes != null ? likes.size() : 0;
-    }
-    
-    // Método auxiliar para contar comentários
-    public int getCommentsCount() {
-        return comments != null ? comments.size() : 0;
-    }
 }
\ No newline at end of file
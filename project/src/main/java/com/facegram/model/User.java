@@ -13,11 +13,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_created_at_id", columnList = "created_at DESC, id DESC")
+})
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Nome é obrigatório")
@@ -56,6 +59,21 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Contadores desnormalizados, mantidos apenas por UPDATEs atômicos no repositório
+    @Column(name = "posts_count", nullable = false, updatable = false)
+    private long postsCount = 0;
+    
+    @Column(name = "followers_count", nullable = false, updatable = false)
+    private long followersCount = 0;
+    
+    @Column(name = "following_count", nullable = false, updatable = false)
+    private long followingCount = 0;
+    
+    // Versão dos tokens JWT; incrementar revoga todos os tokens emitidos antes
+    @Column(name = "token_version", nullable = false, updatable = false)
+    @JsonIgnore
+    private int tokenVersion = 0;
+    
     // Relacionamento 1:N - Um usuário pode ter muitos posts
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
@@ -71,6 +89,16 @@ public class User {
     @JsonIgnore
     private List<Like> likes = new ArrayList<>();
     
+    // Relacionamento 1:N - Usuários que seguem este usuário
+    @OneToMany(mappedBy = "followed", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonIgnore
+    private List<Follow> followers = new ArrayList<>();
+    
+    // Relacionamento 1:N - Usuários que este usuário segue
+    @OneToMany(mappedBy = "follower", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonIgnore
+    private List<Follow> following = new ArrayList<>();
+    
     // Construtores
     public User() {}
     
@@ -111,6 +139,18 @@ public class User {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public long getPostsCount() { return postsCount; }
+    public void setPostsCount(long postsCount) { this.postsCount = postsCount; }
+    
+    public long getFollowersCount() { return followersCount; }
+    public void setFollowersCount(long followersCount) { this.followersCount = followersCount; }
+    
+    public long getFollowingCount() { return followingCount; }
+    public void setFollowingCount(long followingCount) { this.followingCount = followingCount; }
+    
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
+    
     public List<Post> getPosts() { return posts; }
     public void setPosts(List<Post> posts) { this.posts = posts; }
     
@@ -119,4 +159,10 @@ public class User {
     
     public List<Like> getLikes() { return likes; }
     public void setLikes(List<Like> likes) { this.likes = likes; }
+    
+    public List<Follow> getFollowers() { return followers; }
+    public void setFollowers(List<Follow> followers) { this.followers = followers; }
+    
+    public List<Follow> getFollowing() { return following; }
+    public void setFollowing(List<Follow> following) { this.following = following; }
 }
\ No newline at end of file
@@ -1,19 +1,49 @@
 package com.facegram.repository;
 
 import com.facegram.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
     
-    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt ASC")
-    List<Comment> findByPostIdOrderByCreatedAtAsc(@Param("postId") Long postId);
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.id = :id")
+    Optional<Comment> findWithUserById(@Param("id") Long id);
     
-    @Query("SELECT c FROM Comment c WHERE c.user.id = :userId ORDER BY c.createdAt DESC")
-    List<Comment> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
-}
\ No newline at end of file
+    // Thread de um post em ordem cronológica, paginada por (created_at, id) a partir de Cursor.OLDEST.
+    // A faixa em created_at e o post_id na ordenação fazem o H2 ler a página direto do
+    // idx_comments_post_created_at_id em vez do índice da chave estrangeira.
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId " +
+           "AND c.createdAt >= :createdAt AND (c.createdAt > :createdAt OR c.id > :id) " +
+           "ORDER BY c.post.id, c.createdAt ASC, c.id ASC")
+    List<Comment> findThreadAfter(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id, Limit limit);
+    
+    // Comentários de um usuário, mais recentes primeiro, a partir de Cursor.NEWEST
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.user.id = :userId " +
+           "AND c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id) " +
+           "ORDER BY c.user.id, c.createdAt DESC, c.id DESC")
+    List<Comment> findUserCommentsAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, Limit limit);
+    
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.id IN :ids ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Exclusão de conta: comentários do usuário e os feitos nos posts dele
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.post.id IN (SELECT p.id FROM Post p WHERE p.user.id = :userId)")
+    int deleteAllOnPostsOfUser(@Param("userId") Long userId);
+}
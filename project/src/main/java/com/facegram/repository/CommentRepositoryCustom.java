@@ -0,0 +1,9 @@
+package com.facegram.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentRepositoryCustom {
+    
+    List<Long> findPreviewIds(Collection<Long> postIds, int perPost);
+}
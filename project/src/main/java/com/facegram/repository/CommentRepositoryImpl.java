@@ -0,0 +1,49 @@
+package com.facegram.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Uma subconsulta limitada por post, unidas com UNION ALL: cada uma lê só o começo do
+    // idx_comments_post_created_at_id em vez de numerar todos os comentários dos posts;
+    // o post_id na ordenação é o que faz o H2 parar no limite em vez de ordenar a thread
+    @Override
+    public List<Long> findPreviewIds(Collection<Long> postIds, int perPost) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        
+        StringBuilder sql = new StringBuilder();
+        int position = 1;
+        for (int i = 0; i < postIds.size(); i++) {
+            if (i > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("(SELECT c.id FROM comments c WHERE c.post_id = ?").append(position++)
+               .append(" ORDER BY c.post_id, c.created_at, c.id LIMIT ?").append(position++).append(")");
+        }
+        
+        Query query = entityManager.createNativeQuery(sql.toString());
+        position = 1;
+        for (Long postId : postIds) {
+            query.setParameter(position++, postId);
+            query.setParameter(position++, perPost);
+        }
+        
+        List<?> rows = query.getResultList();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            ids.add(((Number) row).longValue());
+        }
+        return ids;
+    }
+}
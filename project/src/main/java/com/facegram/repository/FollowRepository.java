@@ -0,0 +1,39 @@
+package com.facegram.repository;
+
+import com.facegram.model.Follow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+    
+    boolean existsByFollowerIdAndFollowedId(Long followerId, Long followedId);
+    
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.followed.id = :followedId")
+    int deleteByFollowerIdAndFollowedId(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+    
+    // Exclusão de conta: quem o usuário segue e quem o segue
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :userId OR f.followed.id = :userId")
+    int deleteAllOfUser(@Param("userId") Long userId);
+    
+    // Contas seguidas, pela unique (follower_id, followed_id)
+    @Query("SELECT f.followed.id FROM Follow f WHERE f.follower.id = :userId")
+    List<Long> findFollowedIds(@Param("userId") Long userId, Limit limit);
+    
+    // Percorre os seguidores em ordem de id, em lotes, durante o fan-out
+    @Query("SELECT f.follower.id FROM Follow f WHERE f.followed.id = :userId AND f.follower.id > :afterId " +
+           "ORDER BY f.follower.id")
+    List<Long> findFollowerIds(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+    
+    // Contas seguidas que não recebem fan-out na escrita (muitos seguidores)
+    @Query("SELECT f.followed.id FROM Follow f WHERE f.follower.id = :userId AND f.followed.followersCount > :threshold")
+    List<Long> findFollowedIdsWithFollowersAbove(@Param("userId") Long userId, @Param("threshold") long threshold);
+}
@@ -2,10 +2,13 @@ package com.facegram.repository;
 
 import com.facegram.model.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +20,29 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     boolean existsByUserIdAndPostId(Long userId, Long postId);
     
     void deleteByUserIdAndPostId(Long userId, Long postId);
-}
\ No newline at end of file
+    
+    // Curtida só com ids: não insere se já existe ou se o post não existe. O NOT EXISTS sozinho
+    // não é atômico entre transações; quem chama precisa segurar a trava da linha do post
+    @Modifying
+    @Query(value = "INSERT INTO likes (id, user_id, post_id, created_at) " +
+                   "SELECT nextval('likes_seq'), :userId, p.id, CURRENT_TIMESTAMP FROM posts p WHERE p.id = :postId " +
+                   "AND NOT EXISTS (SELECT 1 FROM likes l WHERE l.user_id = :userId AND l.post_id = :postId)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("postId") Long postId);
+    
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.user.id = :userId AND l.post.id = :postId")
+    int deleteByUserIdAndPostIdReturningCount(@Param("userId") Long userId, @Param("postId") Long postId);
+    
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+    
+    // Exclusão de conta: um comando por relação, qualquer que seja o volume do usuário
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.post.id IN (SELECT p.id FROM Post p WHERE p.user.id = :userId)")
+    int deleteAllOnPostsOfUser(@Param("userId") Long userId);
+}
@@ -1,30 +1,137 @@
 package com.facegram.repository;
 
 import com.facegram.model.Post;
+import com.facegram.timeline.TimelineEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
     
-    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
+    @Query(value = "SELECT p FROM Post p JOIN FETCH p.user ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p")
     Page<Post> findAllOrderByCreatedAtDesc(Pageable pageable);
     
-    @Query("SELECT p FROM Post p WHERE p.user.id = :userId ORDER BY p.createdAt DESC")
+    @Query(value = "SELECT p FROM Post p JOIN FETCH p.user WHERE p.user.id = :userId ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.user.id = :userId")
     Page<Post> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId, Pageable pageable);
     
-    @Query("SELECT p FROM Post p WHERE p.content LIKE %:content% ORDER BY p.createdAt DESC")
-    List<Post> findByContentContaining(@Param("content") String content);
+    // Paginação por chave (created_at, id): o custo de qualquer página é o mesmo da primeira.
+    // O created_at <= do cursor vira o início da faixa no índice; sem ele a página é filtrada desde o topo.
+    @Query("SELECT p FROM Post p JOIN FETCH p.user ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findTimeline(Limit limit);
     
-    @Query("SELECT COUNT(l) FROM Like l WHERE l.post.id = :postId")
-    Long countLikesByPostId(@Param("postId") Long postId);
+    @Query("SELECT p FROM Post p JOIN FETCH p.user " +
+           "WHERE p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findTimelineAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
     
-    @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId")
-    Long countCommentsByPostId(@Param("postId") Long postId);
-}
\ No newline at end of file
+    // Posts de um autor; a primeira página usa Cursor.NEWEST. Sem a faixa em created_at e o user_id
+    // à frente do ORDER BY, o H2 prefere o índice da chave estrangeira e ordena todos os posts do autor.
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.user.id = :userId " +
+           "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+           "ORDER BY p.user.id, p.createdAt DESC, p.id DESC")
+    List<Post> findUserTimelineAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id, Limit limit);
+    
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id = :id")
+    Optional<Post> findWithUserById(@Param("id") Long id);
+    
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id IN :ids")
+    List<Post> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Timeline da página inicial numa varredura do idx_posts_created_at_id filtrada pelos seguidos.
+    // Só para quem segue mais contas que facegram.timeline.merge-max-authors; os demais usam
+    // findLatestByAuthors e a mescla do TimelineService.
+    @Query("SELECT new com.facegram.timeline.TimelineEntry(p.id, p.createdAt) FROM Post p " +
+           "WHERE p.user.id = :userId OR p.user.id IN (SELECT f.followed.id FROM Follow f WHERE f.follower.id = :userId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<TimelineEntry> findHomeTimeline(@Param("userId") Long userId, Limit limit);
+    
+    @Query("SELECT new com.facegram.timeline.TimelineEntry(p.id, p.createdAt) FROM Post p " +
+           "WHERE (p.user.id = :userId OR p.user.id IN (SELECT f.followed.id FROM Follow f WHERE f.follower.id = :userId)) " +
+           "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<TimelineEntry> findHomeTimelineAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id, Limit limit);
+    
+    @Query("SELECT p.id FROM Post p WHERE p.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+    
+    // Atualizações atômicas dos contadores (n = n + delta), sem carregar a entidade
+    @Modifying
+    @Query("UPDATE Post p SET p.likesCount = p.likesCount + :delta WHERE p.id = :postId")
+    int incrementLikesCount(@Param("postId") Long postId, @Param("delta") long delta);
+    
+    @Query("SELECT p.likesCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> findLikesCountById(@Param("postId") Long postId);
+    
+    // Trava a linha do post (FOR UPDATE): curtidas concorrentes no mesmo post são serializadas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.likesCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> lockLikesCountById(@Param("postId") Long postId);
+    
+    @Modifying
+    @Query("UPDATE Post p SET p.commentsCount = p.commentsCount + :delta WHERE p.id = :postId")
+    int incrementCommentsCount(@Param("postId") Long postId, @Param("delta") long delta);
+    
+    @Query("SELECT MAX(p.id) FROM Post p")
+    Long findMaxId();
+    
+    // Posts de uma faixa de ids com contadores divergentes; leitura sem trava, só para achar candidatos
+    @Query("SELECT p.id FROM Post p WHERE p.id >= :fromId AND p.id < :toId AND (" +
+           "p.likesCount <> (SELECT COUNT(l) FROM Like l WHERE l.post.id = p.id) OR " +
+           "p.commentsCount <> (SELECT COUNT(c) FROM Comment c WHERE c.post.id = p.id))")
+    List<Long> findIdsWithCounterDrift(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids ORDER BY p.id")
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Recalcula os contadores dos posts informados, alterando apenas as linhas ainda divergentes.
+    // Com as linhas já travadas, nenhum incremento concorrente fica entre a contagem e a escrita.
+    @Modifying
+    @Query("UPDATE Post p SET " +
+           "p.likesCount = (SELECT COUNT(l) FROM Like l WHERE l.post.id = p.id), " +
+           "p.commentsCount = (SELECT COUNT(c) FROM Comment c WHERE c.post.id = p.id) " +
+           "WHERE p.id IN :ids AND (" +
+           "p.likesCount <> (SELECT COUNT(l) FROM Like l WHERE l.post.id = p.id) OR " +
+           "p.commentsCount <> (SELECT COUNT(c) FROM Comment c WHERE c.post.id = p.id))")
+    int reconcileCounters(@Param("ids") Collection<Long> ids);
+    
+    // Exclusão de conta: posts de outros autores que o usuário curtiu ou comentou
+    @Query("SELECT p.id FROM Post p WHERE p.user.id <> :userId AND (" +
+           "p.id IN (SELECT l.post.id FROM Like l WHERE l.user.id = :userId) OR " +
+           "p.id IN (SELECT c.post.id FROM Comment c WHERE c.user.id = :userId))")
+    List<Long> findIdsEngagedByUser(@Param("userId") Long userId);
+    
+    // Descontam dos outros posts as curtidas e comentários que a exclusão do usuário remove em cascata
+    @Modifying
+    @Query("UPDATE Post p SET p.likesCount = p.likesCount - 1 WHERE p.user.id <> :userId " +
+           "AND p.id IN (SELECT l.post.id FROM Like l WHERE l.user.id = :userId)")
+    int discountLikesByUser(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("UPDATE Post p SET p.commentsCount = p.commentsCount - " +
+           "(SELECT COUNT(c) FROM Comment c WHERE c.post.id = p.id AND c.user.id = :userId) " +
+           "WHERE p.user.id <> :userId AND p.id IN (SELECT c.post.id FROM Comment c WHERE c.user.id = :userId)")
+    int discountCommentsByUser(@Param("userId") Long userId);
+    
+    // Só depois de apagar as curtidas e os comentários dos posts
+    @Modifying
+    @Query("DELETE FROM Post p WHERE p.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,12 @@
+package com.facegram.repository;
+
+import com.facegram.timeline.TimelineEntry;
+
+import java.util.List;
+import java.util.Map;
+
+public interface PostRepositoryCustom {
+    
+    // Posts mais recentes de cada autor, abaixo do cursor próprio dele (null = do topo)
+    Map<Long, List<TimelineEntry>> findLatestByAuthors(Map<Long, TimelineEntry> cursorsByAuthor, int perAuthor);
+}
@@ -0,0 +1,80 @@
+package com.facegram.repository;
+
+import com.facegram.timeline.TimelineEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PostRepositoryImpl implements PostRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Uma subconsulta por autor, unidas com UNION ALL, cada uma um seek no idx_posts_user_created_at_id
+    // que lê só perAuthor linhas. O user_id à frente do ORDER BY e o created_at <= no cursor deixam
+    // o H2 reconhecer a ordem do índice; o PostgreSQL faz o mesmo seek com ou sem eles.
+    // Cada lista volta na ordem da timeline; a mescla entre autores fica com quem chama.
+    @Override
+    public Map<Long, List<TimelineEntry>> findLatestByAuthors(Map<Long, TimelineEntry> cursorsByAuthor,
+                                                              int perAuthor) {
+        Map<Long, List<TimelineEntry>> entriesByAuthor = new HashMap<>();
+        if (cursorsByAuthor.isEmpty()) {
+            return entriesByAuthor;
+        }
+        
+        StringBuilder sql = new StringBuilder();
+        List<Object> parameters = new ArrayList<>();
+        for (Map.Entry<Long, TimelineEntry> author : cursorsByAuthor.entrySet()) {
+            if (!parameters.isEmpty()) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("(SELECT p.user_id, p.id, p.created_at FROM posts p WHERE p.user_id = ?")
+               .append(parameters.size() + 1);
+            parameters.add(author.getKey());
+            
+            TimelineEntry cursor = author.getValue();
+            if (cursor != null) {
+                int position = parameters.size();
+                sql.append(" AND p.created_at <= ?").append(position + 1)
+                   .append(" AND (p.created_at < ?").append(position + 1)
+                   .append(" OR p.id < ?").append(position + 2).append(")");
+                parameters.add(cursor.getCreatedAt());
+                parameters.add(cursor.getPostId());
+            }
+            
+            sql.append(" ORDER BY p.user_id, p.created_at DESC, p.id DESC LIMIT ?").append(parameters.size() + 1)
+               .append(")");
+            parameters.add(perAuthor);
+        }
+        
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            long authorId = ((Number) columns[0]).longValue();
+            long postId = ((Number) columns[1]).longValue();
+            entriesByAuthor.computeIfAbsent(authorId, id -> new ArrayList<>())
+                    .add(new TimelineEntry(postId, toLocalDateTime(columns[2])));
+        }
+        // O UNION ALL não garante a ordem entre as linhas de cada ramo
+        entriesByAuthor.values().forEach(entries -> entries.sort(TimelineEntry.NEWEST_FIRST));
+        return entriesByAuthor;
+    }
+    
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -1,11 +1,17 @@
 package com.facegram.repository;
 
 import com.facegram.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,12 +22,86 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     boolean existsByEmail(String email);
     
-    @Query("SELECT u FROM User u WHERE u.name LIKE %:name%")
-    List<User> findByNameContaining(@Param("name") String name);
+    // Diretório de usuários, mais recentes primeiro, paginado por (created_at, id)
+    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findDirectory(Limit limit);
     
-    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC")
-    List<User> findAllOrderByCreatedAtDesc();
+    @Query("SELECT u FROM User u " +
+           "WHERE u.createdAt <= :createdAt AND (u.createdAt < :createdAt OR u.id < :id) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findDirectoryAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
     
-    @Query("SELECT COUNT(p) FROM Post p WHERE p.user.id = :userId")
-    Long countPostsByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+    // Atualizações atômicas dos contadores (n = n + delta), sem carregar a entidade
+    @Modifying
+    @Query("UPDATE User u SET u.postsCount = u.postsCount + :delta WHERE u.id = :userId")
+    int incrementPostsCount(@Param("userId") Long userId, @Param("delta") long delta);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.followersCount = u.followersCount + :delta WHERE u.id = :userId")
+    int incrementFollowersCount(@Param("userId") Long userId, @Param("delta") long delta);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.followingCount = u.followingCount + :delta WHERE u.id = :userId")
+    int incrementFollowingCount(@Param("userId") Long userId, @Param("delta") long delta);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :userId")
+    int updatePassword(@Param("userId") Long userId, @Param("password") String password);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :userId")
+    int incrementTokenVersion(@Param("userId") Long userId);
+    
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :userId")
+    Integer findTokenVersionById(@Param("userId") Long userId);
+    
+    // Apenas usuários que já revogaram tokens; os demais estão na versão 0
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findRevokedTokenVersions();
+    
+    @Query("SELECT u.followersCount FROM User u WHERE u.id = :userId")
+    Long findFollowersCountById(@Param("userId") Long userId);
+    
+    @Query("SELECT MAX(u.id) FROM User u")
+    Long findMaxId();
+    
+    // Usuários de uma faixa de ids com contadores divergentes; leitura sem trava, só para achar candidatos
+    @Query("SELECT u.id FROM User u WHERE u.id >= :fromId AND u.id < :toId AND (" +
+           "u.postsCount <> (SELECT COUNT(p) FROM Post p WHERE p.user.id = u.id) OR " +
+           "u.followersCount <> (SELECT COUNT(f) FROM Follow f WHERE f.followed.id = u.id) OR " +
+           "u.followingCount <> (SELECT COUNT(f) FROM Follow f WHERE f.follower.id = u.id))")
+    List<Long> findIdsWithCounterDrift(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Recalcula os contadores dos usuários informados (já travados), alterando apenas as linhas ainda divergentes
+    @Modifying
+    @Query("UPDATE User u SET " +
+           "u.postsCount = (SELECT COUNT(p) FROM Post p WHERE p.user.id = u.id), " +
+           "u.followersCount = (SELECT COUNT(f) FROM Follow f WHERE f.followed.id = u.id), " +
+           "u.followingCount = (SELECT COUNT(f) FROM Follow f WHERE f.follower.id = u.id) " +
+           "WHERE u.id IN :ids AND (" +
+           "u.postsCount <> (SELECT COUNT(p) FROM Post p WHERE p.user.id = u.id) OR " +
+           "u.followersCount <> (SELECT COUNT(f) FROM Follow f WHERE f.followed.id = u.id) OR " +
+           "u.followingCount <> (SELECT COUNT(f) FROM Follow f WHERE f.follower.id = u.id))")
+    int reconcileCounters(@Param("ids") Collection<Long> ids);
+    
+    // Exclusão de conta: quem o usuário segue e quem o segue
+    @Query("SELECT u.id FROM User u WHERE " +
+           "u.id IN (SELECT f.followed.id FROM Follow f WHERE f.follower.id = :userId) OR " +
+           "u.id IN (SELECT f.follower.id FROM Follow f WHERE f.followed.id = :userId)")
+    List<Long> findConnectedIds(@Param("userId") Long userId);
+    
+    // Descontam dos outros usuários os follows que a exclusão remove em cascata
+    @Modifying
+    @Query("UPDATE User u SET u.followersCount = u.followersCount - 1 " +
+           "WHERE u.id IN (SELECT f.followed.id FROM Follow f WHERE f.follower.id = :userId)")
+    int discountFollowsByFollower(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.followingCount = u.followingCount - 1 " +
+           "WHERE u.id IN (SELECT f.follower.id FROM Follow f WHERE f.followed.id = :userId)")
+    int discountFollowsByFollowed(@Param("userId") Long userId);
+}
@@ -0,0 +1,194 @@
+package com.facegram.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Índice invertido em memória com ranking tf-idf. As leituras não usam trava; as escritas
+// (uma por post ou perfil alterado) são serializadas. O custo de uma busca é limitado por
+// MAX_CANDIDATES e MAX_PREFIX_TERMS, e não pelo tamanho da tabela.
+public class InvertedIndex {
+    
+    // Quantos documentos no máximo são avaliados por consulta, dos mais recentes para os mais antigos
+    static final int MAX_CANDIDATES = 10_000;
+    // Quantos termos no máximo um prefixo pode expandir
+    static final int MAX_PREFIX_TERMS = 64;
+    // Um termo só completado pelo prefixo vale menos que a palavra exata
+    private static final double PREFIX_WEIGHT = 0.8;
+    
+    // termo -> (documento -> frequência), com os ids em ordem decrescente
+    private final ConcurrentSkipListMap<String, NavigableMap<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    // documento -> frequência de cada termo, para remover as entradas antigas numa atualização
+    private final Map<Long, Map<String, Integer>> documents = new ConcurrentHashMap<>();
+    
+    public synchronized void index(Long id, String text) {
+        remove(id);
+        
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        if (frequencies.isEmpty()) {
+            return;
+        }
+        
+        documents.put(id, frequencies);
+        frequencies.forEach((term, frequency) -> postings
+                .computeIfAbsent(term, t -> new ConcurrentSkipListMap<>(Comparator.reverseOrder()))
+                .put(id, frequency));
+    }
+    
+    public synchronized void remove(Long id) {
+        Map<String, Integer> frequencies = documents.remove(id);
+        if (frequencies == null) {
+            return;
+        }
+        for (String term : frequencies.keySet()) {
+            postings.computeIfPresent(term, (t, docs) -> {
+                docs.remove(id);
+                return docs.isEmpty() ? null : docs;
+            });
+        }
+    }
+    
+    public synchronized void clear() {
+        postings.clear();
+        documents.clear();
+    }
+    
+    public int size() {
+        return documents.size();
+    }
+    
+    // Todos os termos precisam casar (AND); o prefixo casa com qualquer termo que comece com ele
+    public SearchHits search(String query, int offset, int limit) {
+        SearchQuery parsed = TextAnalyzer.analyzeQuery(query);
+        if (parsed.isEmpty() || limit <= 0) {
+            return SearchHits.empty();
+        }
+        
+        List<Clause> clauses = new ArrayList<>();
+        for (String term : parsed.getTerms()) {
+            clauses.add(exactClause(term));
+        }
+        if (parsed.getPrefix() != null) {
+            clauses.add(prefixClause(parsed.getPrefix()));
+        }
+        for (Clause clause : clauses) {
+            if (clause.postings.isEmpty()) {
+                return SearchHits.empty();
+            }
+        }
+        
+        // A cláusula mais seletiva gera os candidatos; as demais só filtram e somam pontos
+        clauses.sort(Comparator.comparingLong(Clause::documentFrequency));
+        int totalDocuments = Math.max(documents.size(), 1);
+        Map<Long, Double> scores = clauses.get(0).collect(totalDocuments);
+        for (int i = 1; i < clauses.size() && !scores.isEmpty(); i++) {
+            Clause clause = clauses.get(i);
+            Iterator<Map.Entry<Long, Double>> it = scores.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Double> candidate = it.next();
+                double weight = clause.weight(candidate.getKey(), totalDocuments);
+                if (weight == 0) {
+                    it.remove();
+                } else {
+                    candidate.setValue(candidate.getValue() + weight);
+                }
+            }
+        }
+        
+        // Mais relevante primeiro; no empate, o mais recente
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+        
+        if (offset >= ranked.size()) {
+            return new SearchHits(Collections.emptyList(), ranked.size());
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Map.Entry<Long, Double> entry : ranked.subList(offset, Math.min(offset + limit, ranked.size()))) {
+            ids.add(entry.getKey());
+        }
+        return new SearchHits(ids, ranked.size());
+    }
+    
+    private Clause exactClause(String term) {
+        Clause clause = new Clause();
+        NavigableMap<Long, Integer> docs = postings.get(term);
+        if (docs != null) {
+            clause.add(docs, 1.0);
+        }
+        return clause;
+    }
+    
+    private Clause prefixClause(String prefix) {
+        Clause clause = new Clause();
+        for (Map.Entry<String, NavigableMap<Long, Integer>> entry
+                : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).entrySet()) {
+            if (clause.postings.size() == MAX_PREFIX_TERMS) {
+                break;
+            }
+            clause.add(entry.getValue(), entry.getKey().equals(prefix) ? 1.0 : PREFIX_WEIGHT);
+        }
+        return clause;
+    }
+    
+    // Um termo da consulta e as listas de documentos que o satisfazem (várias no caso do prefixo)
+    private static final class Clause {
+        
+        private final List<NavigableMap<Long, Integer>> postings = new ArrayList<>();
+        private final List<Double> boosts = new ArrayList<>();
+        
+        void add(NavigableMap<Long, Integer> docs, double boost) {
+            postings.add(docs);
+            boosts.add(boost);
+        }
+        
+        long documentFrequency() {
+            long total = 0;
+            for (NavigableMap<Long, Integer> docs : postings) {
+                total += docs.size();
+            }
+            return total;
+        }
+        
+        Map<Long, Double> collect(int totalDocuments) {
+            Map<Long, Double> scores = new HashMap<>();
+            for (int i = 0; i < postings.size() && scores.size() < MAX_CANDIDATES; i++) {
+                NavigableMap<Long, Integer> docs = postings.get(i);
+                for (Map.Entry<Long, Integer> doc : docs.entrySet()) {
+                    double weight = tfIdf(doc.getValue(), docs.size(), totalDocuments) * boosts.get(i);
+                    scores.merge(doc.getKey(), weight, Math::max);
+                    if (scores.size() >= MAX_CANDIDATES) {
+                        break;
+                    }
+                }
+            }
+            return scores;
+        }
+        
+        double weight(Long id, int totalDocuments) {
+            double best = 0;
+            for (int i = 0; i < postings.size(); i++) {
+                NavigableMap<Long, Integer> docs = postings.get(i);
+                Integer frequency = docs.get(id);
+                if (frequency != null) {
+                    best = Math.max(best, tfIdf(frequency, docs.size(), totalDocuments) * boosts.get(i));
+                }
+            }
+            return best;
+        }
+        
+        private static double tfIdf(int frequency, int documentFrequency, int totalDocuments) {
+            return (1 + Math.log(frequency)) * Math.log(1 + (double) totalDocuments / documentFrequency);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.facegram.search;
+
+import java.util.List;
+
+// Ids de uma página de resultados, já ordenados por relevância, e o total de resultados
+public class SearchHits {
+    
+    private final List<Long> ids;
+    private final long total;
+    
+    public SearchHits(List<Long> ids, long total) {
+        this.ids = ids;
+        this.total = total;
+    }
+    
+    public static SearchHits empty() {
+        return new SearchHits(List.of(), 0);
+    }
+    
+    public List<Long> getIds() { return ids; }
+    
+    public long getTotal() { return total; }
+}
@@ -0,0 +1,82 @@
+package com.facegram.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Índices de busca de posts (conteúdo) e usuários (nome). Reconstruídos a partir do banco
+// na subida da aplicação e mantidos em dia pelos eventos de SearchIndexListener.
+@Component
+public class SearchIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+    
+    private final InvertedIndex posts = new InvertedIndex();
+    private final InvertedIndex users = new InvertedIndex();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${facegram.search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+    
+    public SearchHits searchPosts(String query, int offset, int limit) {
+        return posts.search(query, offset, limit);
+    }
+    
+    public SearchHits searchUsers(String query, int offset, int limit) {
+        return users.search(query, offset, limit);
+    }
+    
+    public void indexPost(Long postId, String content) {
+        posts.index(postId, content);
+    }
+    
+    public void removePost(Long postId) {
+        posts.remove(postId);
+    }
+    
+    public void indexUser(Long userId, String name) {
+        users.index(userId, name);
+    }
+    
+    public void removeUser(Long userId) {
+        users.remove(userId);
+    }
+    
+    // Roda depois dos CommandLineRunners (dados iniciais já gravados), com o servidor já no ar
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        posts.clear();
+        users.clear();
+        load("SELECT id, content FROM posts WHERE id > ? ORDER BY id LIMIT ?", posts);
+        load("SELECT id, name FROM users WHERE id > ? ORDER BY id LIMIT ?", users);
+        logger.info("Índice de busca reconstruído: {} posts e {} usuários em {} ms",
+                posts.size(), users.size(), System.currentTimeMillis() - start);
+    }
+    
+    // Lê a tabela em faixas de id, sem carregar tudo na memória de uma vez
+    private void load(String sql, InvertedIndex index) {
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = jdbcTemplate.query(sql,
+                    (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getString(2) },
+                    afterId, rebuildBatchSize);
+            for (Object[] row : rows) {
+                index.index((Long) row[0], (String) row[1]);
+            }
+            if (!rows.isEmpty()) {
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } while (rows.size() == rebuildBatchSize);
+    }
+}
@@ -0,0 +1,66 @@
+package com.facegram.search;
+
+import com.facegram.event.FollowChangedEvent;
+import com.facegram.event.PostCreatedEvent;
+import com.facegram.event.PostDeletedEvent;
+import com.facegram.event.PostUpdatedEvent;
+import com.facegram.event.UserDeletedEvent;
+import com.facegram.event.UserProfileChangedEvent;
+import com.facegram.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Atualização incremental do índice, só depois do commit: uma transação desfeita
+// nunca deixa no índice um texto que não está no banco
+@Component
+public class SearchIndexListener {
+    
+    @Autowired
+    private SearchIndex searchIndex;
+    
+    @Autowired
+    private UserCompletionIndex userCompletionIndex;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        searchIndex.indexPost(event.getPostId(), event.getContent());
+    }
+    
+    @TransactionalEventListener
+    public void onPostUpdated(PostUpdatedEvent event) {
+        searchIndex.indexPost(event.getPostId(), event.getContent());
+    }
+    
+    @TransactionalEventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        searchIndex.removePost(event.getPostId());
+    }
+    
+    @TransactionalEventListener
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        searchIndex.indexUser(event.getUserId(), event.getName());
+        userCompletionIndex.index(event.getUserId(), event.getName());
+    }
+    
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        searchIndex.removeUser(event.getUserId());
+        userCompletionIndex.remove(event.getUserId());
+        event.getPostIds().forEach(searchIndex::removePost);
+    }
+    
+    // Seguidores são o sinal de popularidade do autocompletar
+    @Async
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        Long followersCount = userRepository.findFollowersCountById(event.getFollowedId());
+        if (followersCount != null) {
+            userCompletionIndex.updatePopularity(event.getFollowedId(), followersCount);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.facegram.search;
+
+import java.util.List;
+
+// Termos completos da consulta mais o prefixo final (null se a consulta termina em espaço)
+public class SearchQuery {
+    
+    private final List<String> terms;
+    private final String prefix;
+    
+    public SearchQuery(List<String> terms, String prefix) {
+        this.terms = terms;
+        this.prefix = prefix;
+    }
+    
+    public List<String> getTerms() { return terms; }
+    
+    public String getPrefix() { return prefix; }
+    
+    public boolean isEmpty() {
+        return terms.isEmpty() && prefix == null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.facegram.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Tokenização compartilhada entre indexação e consulta: minúsculas, sem acentos
+// ("Coração" e "coracao" viram o mesmo termo) e sem as palavras vazias mais comuns.
+public final class TextAnalyzer {
+    
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+    
+    // Já sem acentos, como ficam depois da normalização
+    private static final Set<String> STOPWORDS = Set.of(
+        "de", "da", "do", "das", "dos", "em", "no", "na", "nos", "nas", "um", "uma", "uns", "umas",
+        "para", "pra", "por", "pelo", "pela", "pelos", "pelas", "com", "sem", "que", "se", "ao", "aos",
+        "as", "os", "ou", "mas", "mais", "como", "nao", "ja", "so", "eu", "tu", "ele", "ela",
+        "eles", "elas", "me", "te", "lhe", "seu", "sua", "seus", "suas", "meu", "minha", "meus", "minhas",
+        "esse", "essa", "esses", "essas", "este", "esta", "estes", "estas", "isso", "isto", "aquilo",
+        "muito", "tambem", "quando", "ate", "entre", "depois", "num", "numa", "voce", "voces", "the", "and"
+    );
+    
+    private TextAnalyzer() {}
+    
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+    
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (token.length() >= MIN_TERM_LENGTH && !STOPWORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+    
+    // Na consulta o último termo é um prefixo enquanto o usuário ainda está digitando
+    // ("fotog" encontra "fotografia"); por isso ele não é descartado como palavra vazia.
+    public static SearchQuery analyzeQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return new SearchQuery(List.of(), null);
+        }
+        
+        String normalized = normalize(query);
+        List<String> tokens = new ArrayList<>(List.of(SEPARATORS.split(normalized.strip())));
+        tokens.removeIf(String::isEmpty);
+        
+        String prefix = null;
+        boolean openEnded = Character.isLetterOrDigit(normalized.charAt(normalized.length() - 1));
+        if (openEnded && !tokens.isEmpty()) {
+            prefix = tokens.remove(tokens.size() - 1);
+        }
+        
+        List<String> terms = new ArrayList<>();
+        for (String token : tokens) {
+            if (token.length() >= MIN_TERM_LENGTH && !STOPWORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return new SearchQuery(terms, prefix);
+    }
+}
@@ -0,0 +1,359 @@
+package com.facegram.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Autocompletar de nomes para menções. Cada usuário entra com o nome normalizado inteiro
+// e com cada sufixo a partir de uma palavra ("maria silva", "silva"), então "sil" também
+// encontra Maria Silva. Os resultados são os mais seguidos entre os que casam com o prefixo.
+// Prefixos de uma ou duas letras casam com boa parte dos usuários: o top de cada um é mantido
+// pronto e atualizado a cada edição. Os mais longos têm o top-K em cache: a varredura do
+// intervalo só acontece na primeira vez que o prefixo aparece (ou depois de expirar).
+@Component
+public class UserCompletionIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserCompletionIndex.class);
+    
+    public static final int MAX_RESULTS = 10;
+    
+    private static final int SHORT_PREFIX_LENGTH = 2;
+    // Folga além do top-K: remoções só obrigam a varrer o prefixo de novo quando consomem a folga
+    private static final int SHORT_PREFIX_DEPTH = 3 * MAX_RESULTS;
+    
+    // Trocado inteiro pelo rebuild(); as edições alteram o estado corrente sob o lock da instância
+    private volatile State state = new State(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>(),
+            new ConcurrentHashMap<>());
+    
+    private Cache<String, long[]> topResults;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${facegram.search.completion.cache-size:100000}")
+    private long cacheSize;
+    
+    // Também define por quanto tempo uma mudança de popularidade pode demorar a aparecer nos prefixos longos
+    @Value("${facegram.search.completion.cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+    
+    @Value("${facegram.search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+    
+    @PostConstruct
+    public void init() {
+        topResults = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+            .build();
+    }
+    
+    public List<Long> complete(String prefix, int limit) {
+        String normalized = normalizeKey(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        State current = state;
+        long[] top;
+        if (normalized.length() <= SHORT_PREFIX_LENGTH) {
+            ShortPrefixTop shortTop = current.shortTops.get(normalized);
+            top = shortTop == null ? new long[0] : shortTop.ranked;
+        } else {
+            top = topResults.get(normalized, key -> scan(current, key, MAX_RESULTS));
+        }
+        List<Long> ids = new ArrayList<>(Math.min(limit, top.length));
+        for (int i = 0; i < top.length && i < limit && i < MAX_RESULTS; i++) {
+            ids.add(top[i]);
+        }
+        return ids;
+    }
+    
+    public synchronized void index(Long userId, String name) {
+        remove(userId);
+        State current = state;
+        List<String> keys = add(userId, name, current.entries, current.keysByUser, current.popularity);
+        for (String key : keys) {
+            invalidateLongPrefixes(key);
+        }
+        for (String prefix : shortPrefixes(keys)) {
+            ShortPrefixTop shortTop = current.shortTops.computeIfAbsent(prefix, p -> new ShortPrefixTop(new long[0]));
+            if (shortTop.offer(userId, current.ranking())) {
+                refresh(current, prefix, shortTop);
+            }
+        }
+    }
+    
+    public synchronized void remove(Long userId) {
+        State current = state;
+        List<String> keys = current.keysByUser.remove(userId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            current.entries.computeIfPresent(key, (k, ids) -> without(ids, userId));
+            invalidateLongPrefixes(key);
+        }
+        for (String prefix : shortPrefixes(keys)) {
+            ShortPrefixTop shortTop = current.shortTops.get(prefix);
+            if (shortTop != null && shortTop.drop(userId)) {
+                refresh(current, prefix, shortTop);
+            }
+        }
+    }
+    
+    // Prefixos curtos reordenam na hora; os longos acompanham quando as entradas do cache expiram
+    public synchronized void updatePopularity(Long userId, long followersCount) {
+        State current = state;
+        List<String> keys = current.keysByUser.get(userId);
+        if (keys == null) {
+            return;
+        }
+        current.popularity.put(userId, followersCount);
+        for (String prefix : shortPrefixes(keys)) {
+            ShortPrefixTop shortTop = current.shortTops.get(prefix);
+            if (shortTop != null && shortTop.offer(userId, current.ranking())) {
+                refresh(current, prefix, shortTop);
+            }
+        }
+    }
+    
+    public int size() {
+        return state.keysByUser.size();
+    }
+    
+    // Monta as chaves num TreeMap e só então cria o mapa concorrente a partir dele, o que é
+    // linear; inserir milhões de chaves direto no ConcurrentSkipListMap é várias vezes mais lento.
+    // O estado novo é montado à parte e trocado de uma vez: complete() segue lendo o anterior
+    // até lá. Edições concorrentes esperam a carga terminar.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        TreeMap<String, long[]> loaded = new TreeMap<>();
+        Map<Long, List<String>> keysByUser = new ConcurrentHashMap<>();
+        Map<Long, Long> popularity = new ConcurrentHashMap<>();
+        
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = jdbcTemplate.query(
+                    "SELECT id, name, followers_count FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getString(2), rs.getLong(3) },
+                    afterId, rebuildBatchSize);
+            for (Object[] row : rows) {
+                add((Long) row[0], (String) row[1], loaded, keysByUser, popularity);
+                popularity.put((Long) row[0], (Long) row[2]);
+            }
+            if (!rows.isEmpty()) {
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } while (rows.size() == rebuildBatchSize);
+        
+        State rebuilt = new State(new ConcurrentSkipListMap<>(loaded), keysByUser, popularity);
+        for (String prefix : shortPrefixes(loaded.keySet())) {
+            rebuilt.shortTops.put(prefix, new ShortPrefixTop(scan(rebuilt, prefix, SHORT_PREFIX_DEPTH)));
+        }
+        state = rebuilt;
+        topResults.invalidateAll();
+        logger.info("Autocompletar de usuários carregado: {} usuários em {} ms",
+                size(), System.currentTimeMillis() - start);
+    }
+    
+    // Varre o intervalo de chaves com o prefixo mantendo só os depth mais populares
+    private static long[] scan(State state, String prefix, int depth) {
+        Comparator<Long> lowestFirst = state.ranking().reversed();
+        PriorityQueue<Long> heap = new PriorityQueue<>(depth + 1, lowestFirst);
+        
+        for (long[] ids : state.entries.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            for (long id : ids) {
+                // Abaixo do pior guardado não entra; evita o contains na maior parte dos ids
+                if (heap.size() == depth && lowestFirst.compare(id, heap.peek()) <= 0) {
+                    continue;
+                }
+                // O mesmo usuário pode casar por mais de uma chave ("silva silva")
+                if (!heap.contains(id)) {
+                    heap.offer(id);
+                    if (heap.size() > depth) {
+                        heap.poll();
+                    }
+                }
+            }
+        }
+        
+        long[] top = new long[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = heap.poll();
+        }
+        return top;
+    }
+    
+    private static void refresh(State state, String prefix, ShortPrefixTop shortTop) {
+        shortTop.reset(scan(state, prefix, SHORT_PREFIX_DEPTH));
+    }
+    
+    private static List<String> add(Long userId, String name, Map<String, long[]> target,
+                                    Map<Long, List<String>> keysByUser, Map<Long, Long> popularity) {
+        List<String> keys = keysFor(name);
+        keysByUser.put(userId, keys);
+        popularity.putIfAbsent(userId, 0L);
+        for (String key : keys) {
+            target.merge(key, new long[] { userId }, UserCompletionIndex::append);
+        }
+        return keys;
+    }
+    
+    // Os prefixos curtos não passam pelo cache
+    private void invalidateLongPrefixes(String key) {
+        for (int length = SHORT_PREFIX_LENGTH + 1; length <= key.length(); length++) {
+            topResults.invalidate(key.substring(0, length));
+        }
+    }
+    
+    private static Set<String> shortPrefixes(Collection<String> keys) {
+        Set<String> prefixes = new TreeSet<>();
+        for (String key : keys) {
+            for (int length = 1; length <= SHORT_PREFIX_LENGTH && length <= key.length(); length++) {
+                prefixes.add(key.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+    
+    private static List<String> keysFor(String name) {
+        String normalized = normalizeKey(name);
+        List<String> keys = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+    
+    // Sem acentos, minúsculas e palavras separadas por um único espaço
+    private static String normalizeKey(String text) {
+        if (text == null) {
+            return "";
+        }
+        return String.join(" ", Arrays.stream(TextAnalyzer.normalize(text).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new));
+    }
+    
+    private static long[] append(long[] ids, long[] added) {
+        long[] merged = Arrays.copyOf(ids, ids.length + added.length);
+        System.arraycopy(added, 0, merged, ids.length, added.length);
+        return merged;
+    }
+    
+    // Retorna null quando a entrada fica vazia, o que a remove do mapa
+    private static long[] without(long[] ids, long userId) {
+        long[] remaining = Arrays.stream(ids).filter(id -> id != userId).toArray();
+        return remaining.length == 0 ? null : remaining;
+    }
+    
+    // Tudo o que o autocompletar lê, trocado de uma vez pelo rebuild()
+    private static final class State {
+        
+        // chave normalizada -> ids dos usuários com essa chave (homônimos dividem a entrada)
+        final ConcurrentSkipListMap<String, long[]> entries;
+        // usuário -> chaves indexadas, para remover as antigas numa edição de nome
+        final Map<Long, List<String>> keysByUser;
+        // usuário -> número de seguidores, o sinal de popularidade do ranking
+        final Map<Long, Long> popularity;
+        // prefixo de até SHORT_PREFIX_LENGTH caracteres -> top mantido a cada edição
+        final Map<String, ShortPrefixTop> shortTops = new ConcurrentHashMap<>();
+        
+        State(ConcurrentSkipListMap<String, long[]> entries, Map<Long, List<String>> keysByUser,
+              Map<Long, Long> popularity) {
+            this.entries = entries;
+            this.keysByUser = keysByUser;
+            this.popularity = popularity;
+        }
+        
+        // Mais seguidos primeiro; no empate, o id menor
+        Comparator<Long> ranking() {
+            return Comparator.<Long>comparingLong(id -> popularity.getOrDefault(id, 0L)).reversed()
+                    .thenComparing(Comparator.naturalOrder());
+        }
+    }
+    
+    // Os primeiros colocados de um prefixo curto, em ordem. Vale sempre que ranked é exatamente o
+    // começo do ranking do prefixo; complete indica que ranked tem todos os usuários que casam.
+    // Alterado só sob o lock do índice; complete() lê ranked sem lock.
+    private static final class ShortPrefixTop {
+        
+        volatile long[] ranked;
+        boolean complete;
+        
+        ShortPrefixTop(long[] ranked) {
+            reset(ranked);
+        }
+        
+        void reset(long[] ranked) {
+            this.ranked = ranked;
+            this.complete = ranked.length < SHORT_PREFIX_DEPTH;
+        }
+        
+        // Insere ou reposiciona o usuário. Abaixo de todos os guardados ele só fica se a lista
+        // estiver completa: senão algum usuário fora dela pode estar à frente. Retorna true
+        // quando a lista ficou menor que o top-K e precisa ser varrida de novo.
+        boolean offer(long userId, Comparator<Long> ranking) {
+            List<Long> ids = new ArrayList<>(ranked.length + 1);
+            for (long id : ranked) {
+                if (id != userId) {
+                    ids.add(id);
+                }
+            }
+            int position = 0;
+            while (position < ids.size() && ranking.compare(ids.get(position), userId) < 0) {
+                position++;
+            }
+            if (position < ids.size() || complete) {
+                ids.add(position, userId);
+            }
+            if (ids.size() > SHORT_PREFIX_DEPTH) {
+                ids.remove(ids.size() - 1);
+                complete = false;
+            }
+            ranked = ids.stream().mapToLong(Long::longValue).toArray();
+            return needsRefresh();
+        }
+        
+        boolean drop(long userId) {
+            long[] remaining = Arrays.stream(ranked).filter(id -> id != userId).toArray();
+            if (remaining.length != ranked.length) {
+                ranked = remaining;
+            }
+            return needsRefresh();
+        }
+        
+        private boolean needsRefresh() {
+            return !complete && ranked.length < MAX_RESULTS;
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.facegram.security;
 
+import com.facegram.config.CacheConfig;
 import com.facegram.model.User;
 import com.facegram.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     @Autowired
     private UserRepository userRepository;
@@ -25,10 +29,22 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
     
     @Transactional
+    @Cacheable(cacheNames = CacheConfig.USER_PRINCIPALS, key = "#id")
     public UserDetails loadUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com id: " + id));
         
         return UserPrincipal.create(user);
     }
+    
+    // Chamado pelo DaoAuthenticationProvider após um login válido com hash de custo desatualizado
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPALS, key = "#user.id")
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userRepository.updatePassword(principal.getId(), newPassword);
+        return new UserPrincipal(principal.getId(), principal.getName(), principal.getUsername(), newPassword,
+                principal.getTokenVersion(), principal.getAuthorities());
+    }
 }
\ No newline at end of file
@@ -1,13 +1,16 @@
 package com.facegram.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -27,28 +30,76 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
     
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Com o modo stateless o principal vem das claims do token, sem SELECT por requisição
+    @Value("${jwt.stateless:true}")
+    private boolean statelessJwt;
+    
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response, 
                                   @NonNull FilterChain filterChain) throws ServletException, IOException {
+        // Só a autenticação é medida; o restante da requisição está em http.server.requests
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = authenticate(request);
+        sample.stop(meterRegistry.timer("facegram.security.jwt", "outcome", outcome));
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    // Preenche o SecurityContext quando o token é válido; o retorno vira a tag outcome da métrica
+    private String authenticate(HttpServletRequest request) {
         try {
             String jwt = getJwtFromRequest(request);
+            if (!StringUtils.hasText(jwt)) {
+                return "anonymous";
+            }
+            
+            VerifiedToken verified = tokenProvider.verify(jwt);
+            if (verified == null) {
+                return "invalid";
+            }
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
-                
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            UserPrincipal tokenPrincipal = verified.getPrincipal();
+            UserPrincipal userDetails;
+            if (statelessJwt) {
+                // Versão conferida no registro em memória desta instância
+                if (!tokenVersionRegistry.isCurrent(tokenPrincipal.getId(), tokenPrincipal.getTokenVersion())) {
+                    return "revoked";
+                }
+                userDetails = tokenPrincipal;
+            } else {
+                // Versão conferida contra o banco: vale também para revogações feitas em outra instância
+                try {
+                    userDetails = (UserPrincipal) customUserDetailsService.loadUserById(verified.getUserId());
+                } catch (UsernameNotFoundException ex) {
+                    // Token de uma conta já excluída: falha comum de autenticação, sem stack trace,
+                    // para que um cliente repetindo o token antigo não encha o log
+                    logger.debug("Token de usuário inexistente: " + ex.getMessage());
+                    SecurityContextHolder.clearContext();
+                    return "unknown_user";
+                }
+                if (userDetails.getTokenVersion() != tokenPrincipal.getTokenVersion()) {
+                    return "revoked";
+                }
             }
+            
+            UsernamePasswordAuthenticationToken authentication = 
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            return "authenticated";
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
+            SecurityContextHolder.clearContext();
+            return "error";
         }
-        
-        filterChain.doFilter(request, response);
     }
     
     private String getJwtFromRequest(HttpServletRequest request) {
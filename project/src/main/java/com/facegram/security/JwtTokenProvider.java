@@ -1,25 +1,81 @@
 package com.facegram.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
     
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
+    
+    private static final String CLAIM_NAME = "name";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+    
+    // Chave e parser são imutáveis e thread-safe: montados uma vez só
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    // Tokens já verificados, pelo hash SHA-256, até a expiração de cada um
+    private Cache<String, VerifiedToken> verifiedTokens;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
+        verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(verifiedCacheMaxSize)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                    long remainingMs = token.getExpiresAtMillis() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+                }
+                
+                @Override
+                public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+                
+                @Override
+                public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
     }
     
     public String generateToken(Authentication authentication) {
@@ -28,40 +84,93 @@ public class JwtTokenProvider {
         
         return Jwts.builder()
                 .setSubject(Long.toString(userPrincipal.getId()))
+                .claim(CLAIM_NAME, userPrincipal.getName())
+                .claim(CLAIM_EMAIL, userPrincipal.getUsername())
+                .claim(CLAIM_ROLES, userPrincipal.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toList()))
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
     
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Valida assinatura e expiração uma única vez por token; retorna null se o token for inválido.
+    // Revogação não entra no cache: quem chama confere a versão a cada requisição.
+    public VerifiedToken verify(String token) {
+        String cacheKey = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        
+        // Sem a claim de versão não há como conferir revogação: o token é recusado
+        UserPrincipal principal = toPrincipal(claims);
+        if (principal == null) {
+            return null;
+        }
         
-        return Long.parseLong(claims.getSubject());
+        VerifiedToken verified = new VerifiedToken(
+            Long.parseLong(claims.getSubject()),
+            principal,
+            claims.getExpiration().getTime()
+        );
+        verifiedTokens.put(cacheKey, verified);
+        return verified;
     }
     
-    public boolean validateToken(String authToken) {
+    private Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException ex) {
-            System.err.println("Invalid JWT signature");
+            return jwtParser.parseClaimsJws(token).getBody();
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
+            // Assinatura que não confere pode ser adulteração: vale um aviso
+            logger.warn("Assinatura de JWT inválida: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
+            logger.debug("JWT malformado: {}", ex.getMessage());
         } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
+            logger.debug("JWT expirado: {}", ex.getMessage());
         } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
+            logger.debug("JWT não suportado: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
+            logger.debug("JWT vazio: {}", ex.getMessage());
+        }
+        return null;
+    }
+    
+    // Reconstrói o principal só com as claims assinadas, sem consultar o banco.
+    // Retorna null para tokens emitidos antes das claims (e da versão) existirem.
+    private UserPrincipal toPrincipal(Claims claims) {
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (tokenVersion == null || roles == null) {
+            return null;
+        }
+        
+        return new UserPrincipal(
+            Long.parseLong(claims.getSubject()),
+            claims.get(CLAIM_NAME, String.class),
+            claims.get(CLAIM_EMAIL, String.class),
+            null,
+            tokenVersion,
+            roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList())
+        );
+    }
+    
+    // O cache guarda o hash e não o token em si
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível", ex);
         }
-        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.facegram.security;
+
+import com.facegram.event.TokensRevokedEvent;
+import com.facegram.event.UserDeletedEvent;
+import com.facegram.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Versão atual dos tokens de cada usuário, consultada em memória a cada requisição.
+// Só guarda quem já revogou tokens; a ausência significa versão 0. Atualizado só depois
+// do commit, para um rollback não deixar o registro diferente do banco.
+// O registro é local à instância: logout ou exclusão feitos em outra instância só valem
+// aqui após reiniciar. Com várias instâncias use jwt.stateless=false, que confere a
+// versão contra o banco (com o cache de principals, até facegram.cache.users.ttl-seconds).
+@Component
+public class TokenVersionRegistry {
+    
+    private static final int DELETED = Integer.MAX_VALUE;
+    
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @PostConstruct
+    public void load() {
+        for (Object[] row : userRepository.findRevokedTokenVersions()) {
+            versions.put((Long) row[0], (Integer) row[1]);
+        }
+    }
+    
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return versions.getOrDefault(userId, 0) == tokenVersion;
+    }
+    
+    @TransactionalEventListener
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        versions.put(event.getUserId(), event.getTokenVersion());
+    }
+    
+    // Nenhum token de um usuário removido volta a ser aceito
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        versions.put(event.getUserId(), DELETED);
+    }
+}
@@ -7,19 +7,32 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 public class UserPrincipal implements UserDetails {
     
+    public static final List<GrantedAuthority> DEFAULT_AUTHORITIES =
+        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+    
     private Long id;
     private String name;
     private String email;
     private String password;
+    private int tokenVersion;
+    private Collection<? extends GrantedAuthority> authorities;
     
     public UserPrincipal(Long id, String name, String email, String password) {
+        this(id, name, email, password, 0, DEFAULT_AUTHORITIES);
+    }
+    
+    public UserPrincipal(Long id, String name, String email, String password, int tokenVersion,
+                         Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.name = name;
         this.email = email;
         this.password = password;
+        this.tokenVersion = tokenVersion;
+        this.authorities = authorities;
     }
     
     public static UserPrincipal create(User user) {
@@ -27,7 +40,9 @@ public class UserPrincipal implements UserDetails {
             user.getId(),
             user.getName(),
             user.getEmail(),
-            user.getPassword()
+            user.getPassword(),
+            user.getTokenVersion(),
+            DEFAULT_AUTHORITIES
         );
     }
     
@@ -39,6 +54,10 @@ public class UserPrincipal implements UserDetails {
         return name;
     }
     
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+    
     @Override
     public String getUsername() {
         return email;
@@ -51,7 +70,7 @@ public class UserPrincipal implements UserDetails {
     
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        return authorities;
     }
     
     @Override
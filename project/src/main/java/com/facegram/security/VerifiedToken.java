@@ -0,0 +1,27 @@
+package com.facegram.security;
+
+// Resultado da verificação de um JWT, reaproveitado enquanto o token não expira
+public class VerifiedToken {
+    
+    private final Long userId;
+    private final UserPrincipal principal;
+    private final long expiresAtMillis;
+    
+    public VerifiedToken(Long userId, UserPrincipal principal, long expiresAtMillis) {
+        this.userId = userId;
+        this.principal = principal;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public UserPrincipal getPrincipal() {
+        return principal;
+    }
+    
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
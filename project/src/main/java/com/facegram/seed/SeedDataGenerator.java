@@ -0,0 +1,409 @@
+package com.facegram.seed;
+
+import com.facegram.service.BulkInsertService;
+import com.facegram.service.BulkInsertService.CommentRow;
+import com.facegram.service.BulkInsertService.LikeRow;
+import com.facegram.service.CounterReconciliationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Gerador de datasets para testes de carga, ativado só com o perfil seed.
+// Popularidade segue Zipf: poucos autores concentram os posts, poucos usuários concentram
+// os seguidores e poucos posts viralizam em curtidas e comentários. Cada fase é dividida em
+// faixas de ids processadas em paralelo; cada faixa tem seu próprio gerador aleatório
+// derivado da semente, então o resultado não depende do número de threads nem da ordem.
+@Component
+@Profile("seed")
+public class SeedDataGenerator implements CommandLineRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SeedDataGenerator.class);
+    
+    private static final String INSERT_USER =
+        "INSERT INTO users (id, name, email, password, bio, location, created_at, " +
+        "posts_count, followers_count, following_count, token_version) VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0, 0, 0)";
+    private static final String INSERT_POST =
+        "INSERT INTO posts (id, user_id, content, created_at, likes_count, comments_count) VALUES (?, ?, ?, ?, 0, 0)";
+    private static final String INSERT_FOLLOW =
+        "INSERT INTO follows (id, follower_id, followed_id, created_at) VALUES (nextval('follows_seq'), ?, ?, ?)";
+    
+    // Mesmo valor do allocationSize das entidades
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+    private static final int HISTORY_DAYS = 365;
+    private static final String PASSWORD = "123456";
+    
+    private static final String[] FIRST_NAMES = {
+        "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Hugo", "Isabela", "João",
+        "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sofia", "Thiago", "Vitória", "Lucas"
+    };
+    private static final String[] LAST_NAMES = {
+        "Silva", "Santos", "Oliveira", "Souza", "Costa", "Pereira", "Almeida", "Ferreira", "Rodrigues", "Gomes",
+        "Martins", "Araújo", "Barbosa", "Ribeiro", "Carvalho", "Rocha", "Lima", "Mendes", "Cardoso", "Teixeira"
+    };
+    private static final String[] CITIES = {
+        "São Paulo", "Rio de Janeiro", "Belo Horizonte", "Salvador", "Curitiba", "Recife", "Porto Alegre", "Fortaleza"
+    };
+    private static final String[] TOPICS = {
+        "fotografia", "viagem", "café", "futebol", "música", "tecnologia", "praia", "montanha",
+        "livros", "cinema", "receita", "corrida", "design", "arte", "jardim", "trabalho"
+    };
+    private static final String[] PHRASES = {
+        "Que dia incrível para falar de %s!",
+        "Alguém mais apaixonado por %s por aqui?",
+        "Finalmente terminei meu projeto de %s.",
+        "Dica do dia sobre %s: comece pequeno.",
+        "Hoje foi tudo sobre %s e valeu cada minuto."
+    };
+    private static final String[] COMMENTS = {
+        "Muito bom!", "Concordo demais.", "Que foto linda!", "Parabéns!", "Adorei isso.",
+        "Onde foi isso?", "Me inspirou!", "Sensacional.", "Quero saber mais!", "Top demais."
+    };
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private BulkInsertService bulkInsertService;
+    
+    @Autowired
+    private CounterReconciliationService counterReconciliationService;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private ApplicationContext applicationContext;
+    
+    @Value("${facegram.seed.users:100000}")
+    private long userCount;
+    
+    @Value("${facegram.seed.posts-per-user:5}")
+    private double postsPerUser;
+    
+    @Value("${facegram.seed.follows-per-user:20}")
+    private double followsPerUser;
+    
+    @Value("${facegram.seed.likes-per-post:10}")
+    private double likesPerPost;
+    
+    @Value("${facegram.seed.comments-per-post:2}")
+    private double commentsPerPost;
+    
+    @Value("${facegram.seed.zipf-exponent:1.0}")
+    private double zipfExponent;
+    
+    @Value("${facegram.seed.random-seed:42}")
+    private long randomSeed;
+    
+    @Value("${facegram.seed.threads:4}")
+    private int threads;
+    
+    @Value("${facegram.seed.chunk-size:10000}")
+    private int chunkSize;
+    
+    @Value("${facegram.seed.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${facegram.seed.exit-on-finish:false}")
+    private boolean exitOnFinish;
+    
+    private long userBase;
+    private long postBase;
+    private long postCount;
+    private long userMultiplier;
+    private long postMultiplier;
+    private ZipfSampler userPopularity;
+    private ZipfSampler postPopularity;
+    private LocalDateTime historyStart;
+    private String passwordHash;
+    
+    @Override
+    public void run(String... args) throws Exception {
+        userBase = maxId("users");
+        postBase = maxId("posts");
+        postCount = Math.max(1, Math.round(userCount * postsPerUser));
+        userPopularity = new ZipfSampler(userCount, zipfExponent);
+        postPopularity = new ZipfSampler(postCount, zipfExponent);
+        // Espalha os postos de popularidade pelos ids, para que os populares não sejam só os mais antigos
+        userMultiplier = coprimeMultiplier(userCount);
+        postMultiplier = coprimeMultiplier(postCount);
+        // Âncora no início do dia: mesma semente no mesmo dia gera as mesmas datas
+        historyStart = LocalDate.now().atStartOfDay().minusDays(HISTORY_DAYS);
+        // Um único hash para todos: o BCrypt por usuário dominaria o tempo da carga
+        passwordHash = passwordEncoder.encode(PASSWORD);
+        
+        logger.info("Seed {}: {} usuários, {} posts, ~{} seguidores, ~{} curtidas, ~{} comentários, {} threads",
+                randomSeed, userCount, postCount, Math.round(userCount * followsPerUser),
+                Math.round(postCount * likesPerPost), Math.round(postCount * commentsPerPost), threads);
+        
+        long started = System.currentTimeMillis();
+        long rows = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            rows += runPhase(executor, 1, "usuários", userCount, this::insertUsers);
+            rows += runPhase(executor, 2, "posts", postCount, this::insertPosts);
+            rows += runPhase(executor, 3, "seguidores", userCount, this::insertFollows);
+            rows += runPhase(executor, 4, "curtidas", postCount, this::insertLikes);
+            rows += runPhase(executor, 5, "comentários", postCount, this::insertComments);
+        } finally {
+            executor.shutdown();
+        }
+        
+        // Usuários e posts receberam ids explícitos; as sequências passam a começar depois deles
+        restartSequence("users_seq", userBase + userCount);
+        restartSequence("posts_seq", postBase + postCount);
+        
+        // Contadores dos posts já foram ajustados pelo BulkInsertService; faltam os dos usuários
+        long reconcileStarted = System.currentTimeMillis();
+        counterReconciliationService.reconcileUsers();
+        logger.info("Contadores dos usuários recalculados em {} ms", System.currentTimeMillis() - reconcileStarted);
+        
+        long elapsed = System.currentTimeMillis() - started;
+        logger.info("Seed concluída: {} linhas em {} ms ({} linhas/s)", rows, elapsed, rowsPerSecond(rows, elapsed));
+        
+        if (exitOnFinish) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+    
+    private long runPhase(ExecutorService executor, int phase, String name, long count, ChunkWriter writer)
+            throws InterruptedException, ExecutionException {
+        long started = System.currentTimeMillis();
+        List<Future<Long>> futures = new ArrayList<>();
+        for (long from = 0, chunk = 0; from < count; from += chunkSize, chunk++) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(count, from + chunkSize);
+            SplittableRandom random = new SplittableRandom(mix(randomSeed, phase, chunk));
+            futures.add(executor.submit(() -> writer.write(chunkFrom, chunkTo, random)));
+        }
+        
+        long rows = 0;
+        for (Future<Long> future : futures) {
+            rows += future.get();
+        }
+        long elapsed = System.currentTimeMillis() - started;
+        logger.info("Fase {}: {} linhas em {} ms ({} linhas/s)", name, rows, elapsed, rowsPerSecond(rows, elapsed));
+        return rows;
+    }
+    
+    private long insertUsers(long from, long to, SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (long i = from; i < to; i++) {
+            long id = userBase + i + 1;
+            String name = pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random);
+            rows.add(new Object[] {
+                id, name, "seed" + id + "@facegram.dev", passwordHash,
+                "Fã de " + pick(TOPICS, random), pick(CITIES, random),
+                Timestamp.valueOf(timeAt(i, userCount))
+            });
+            flushIfFull(INSERT_USER, rows);
+        }
+        flush(INSERT_USER, rows);
+        return to - from;
+    }
+    
+    // Autoria segue Zipf: poucos usuários escrevem a maior parte dos posts
+    private long insertPosts(long from, long to, SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (long i = from; i < to; i++) {
+            long authorId = userBase + permute(userPopularity.sample(random) - 1, userCount, userMultiplier) + 1;
+            String content = String.format(pick(PHRASES, random), pick(TOPICS, random));
+            rows.add(new Object[] { postBase + i + 1, authorId, content, Timestamp.valueOf(postCreatedAt(i)) });
+            flushIfFull(INSERT_POST, rows);
+        }
+        flush(INSERT_POST, rows);
+        return to - from;
+    }
+    
+    // Quantos cada um segue é exponencial em torno da média; quem é seguido segue Zipf,
+    // o que produz a cauda longa de seguidores
+    private long insertFollows(long from, long to, SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        long inserted = 0;
+        for (long i = from; i < to; i++) {
+            long followerId = userBase + i + 1;
+            long following = Math.min(userCount - 1, Math.round(-followsPerUser * Math.log(1 - random.nextDouble())));
+            Set<Long> followed = new HashSet<>();
+            for (long attempt = 0; followed.size() < following && attempt < following * 4; attempt++) {
+                long followedId = userBase + permute(userPopularity.sample(random) - 1, userCount, userMultiplier) + 1;
+                if (followedId != followerId && followed.add(followedId)) {
+                    rows.add(new Object[] { followerId, followedId, Timestamp.valueOf(timeAt(i, userCount)) });
+                    flushIfFull(INSERT_FOLLOW, rows);
+                }
+            }
+            inserted += followed.size();
+        }
+        flush(INSERT_FOLLOW, rows);
+        return inserted;
+    }
+    
+    // Curtidas por post proporcionais à popularidade do post; os usuários de cada post são
+    // uma progressão aritmética módulo o total de usuários, distintos sem precisar de conjunto
+    private long insertLikes(long from, long to, SplittableRandom random) {
+        List<LikeRow> rows = new ArrayList<>(batchSize);
+        long inserted = 0;
+        double totalLikes = postCount * likesPerPost;
+        for (long i = from; i < to; i++) {
+            long likes = Math.min(userCount, expectedCount(totalLikes, i, random));
+            long start = random.nextLong(userCount);
+            long stride = coprimeStride(userCount, random);
+            LocalDateTime createdAt = postCreatedAt(i);
+            for (long j = 0; j < likes; j++) {
+                long userId = userBase + (start + j * stride) % userCount + 1;
+                rows.add(new LikeRow(userId, postBase + i + 1, createdAt.plusMinutes(random.nextInt(1440))));
+                if (rows.size() >= batchSize) {
+                    bulkInsertService.insertLikes(rows);
+                    rows.clear();
+                }
+            }
+            inserted += likes;
+        }
+        if (!rows.isEmpty()) {
+            bulkInsertService.insertLikes(rows);
+        }
+        return inserted;
+    }
+    
+    private long insertComments(long from, long to, SplittableRandom random) {
+        List<CommentRow> rows = new ArrayList<>(batchSize);
+        long inserted = 0;
+        double totalComments = postCount * commentsPerPost;
+        for (long i = from; i < to; i++) {
+            long comments = expectedCount(totalComments, i, random);
+            LocalDateTime createdAt = postCreatedAt(i);
+            for (long j = 0; j < comments; j++) {
+                long userId = userBase + random.nextLong(userCount) + 1;
+                rows.add(new CommentRow(userId, postBase + i + 1, pick(COMMENTS, random),
+                        createdAt.plusMinutes(random.nextInt(1440))));
+                if (rows.size() >= batchSize) {
+                    bulkInsertService.insertComments(rows);
+                    rows.clear();
+                }
+            }
+            inserted += comments;
+        }
+        if (!rows.isEmpty()) {
+            bulkInsertService.insertComments(rows);
+        }
+        return inserted;
+    }
+    
+    // Parte do total que cabe ao post pela sua posição no ranking de popularidade;
+    // a fração restante vira uma unidade a mais com a probabilidade correspondente
+    private long expectedCount(double total, long postIndex, SplittableRandom random) {
+        long rank = permute(postIndex, postCount, postMultiplier) + 1;
+        double expected = total * postPopularity.probability(rank);
+        long count = (long) expected;
+        return random.nextDouble() < expected - count ? count + 1 : count;
+    }
+    
+    private void flushIfFull(String sql, List<Object[]> rows) {
+        if (rows.size() >= batchSize) {
+            flush(sql, rows);
+        }
+    }
+    
+    private void flush(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+        rows.clear();
+    }
+    
+    private long maxId(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return maxId != null ? maxId : 0;
+    }
+    
+    // O otimizador pooled usa o intervalo (valor - 50, valor]; ver V2__PooledIdSequences
+    private void restartSequence(String sequence, long maxId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + SEQUENCE_ALLOCATION_SIZE));
+    }
+    
+    // Datas crescentes com o id, distribuídas pelo histórico
+    private LocalDateTime timeAt(long index, long count) {
+        long seconds = HISTORY_DAYS * 86400L * index / count;
+        return historyStart.plusSeconds(seconds);
+    }
+    
+    private LocalDateTime postCreatedAt(long postIndex) {
+        return timeAt(postIndex, postCount);
+    }
+    
+    // Bijeção em [0, n): x * m mod n, com m primo com n. x e m são menores que n,
+    // então o produto cabe em long para n até ~3 bilhões
+    private static long permute(long x, long n, long multiplier) {
+        return (x * multiplier) % n;
+    }
+    
+    private static long coprimeMultiplier(long n) {
+        long multiplier = Math.max(1, (long) (n * 0.6180339887));
+        while (gcd(multiplier, n) != 1) {
+            multiplier++;
+        }
+        return multiplier;
+    }
+    
+    private static long coprimeStride(long n, SplittableRandom random) {
+        if (n == 1) {
+            return 1;
+        }
+        long stride = 1 + random.nextLong(n - 1);
+        while (gcd(stride, n) != 1) {
+            stride = 1 + random.nextLong(n - 1);
+        }
+        return stride;
+    }
+    
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+    
+    private static long mix(long seed, int phase, long chunk) {
+        return seed ^ (phase * 0x9E3779B97F4A7C15L) ^ (chunk * 0xC2B2AE3D27D4EB4FL);
+    }
+    
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    private static long rowsPerSecond(long rows, long elapsedMillis) {
+        return rows * 1000 / Math.max(1, elapsedMillis);
+    }
+    
+    @FunctionalInterface
+    private interface ChunkWriter {
+        long write(long from, long to, SplittableRandom random);
+    }
+}
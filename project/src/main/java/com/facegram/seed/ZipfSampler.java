@@ -0,0 +1,83 @@
+package com.facegram.seed;
+
+import java.util.SplittableRandom;
+
+// Amostragem de uma distribuição de Zipf sobre os postos 1..n, com P(k) proporcional a k^-s.
+// Usa rejeição-inversão (Hörmann e Derflinger): memória constante e custo O(1) por amostra,
+// o que permite n na casa das dezenas de milhões sem tabela de probabilidades acumuladas.
+public class ZipfSampler {
+    
+    private final long n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+    // Aproximação da soma de k^-s para k = 1..n, usada por probability()
+    private final double normalization;
+    
+    public ZipfSampler(long n, double exponent) {
+        if (n < 1 || exponent <= 0) {
+            throw new IllegalArgumentException("Zipf requer n >= 1 e expoente > 0");
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+        this.normalization = hIntegralN - hIntegralX1;
+    }
+    
+    public long sample(SplittableRandom random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            long k = (long) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > n) {
+                k = n;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+    
+    // Fração esperada das amostras que caem no posto k
+    public double probability(long rank) {
+        return h(rank) / normalization;
+    }
+    
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+    
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1 - exponent) * logX) * logX;
+    }
+    
+    private double hIntegralInverse(double x) {
+        double t = x * (1 - exponent);
+        if (t < -1) {
+            t = -1;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+    
+    // log1p(x) / x, estável perto de zero
+    private static double helper1(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1 - x * (0.5 - x * (1.0 / 3 - x * 0.25));
+    }
+    
+    // expm1(x) / x, estável perto de zero
+    private static double helper2(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1 + x * 0.5 * (1 + x * (1.0 / 3) * (1 + x * 0.25));
+    }
+}
@@ -1,20 +1,30 @@
 package com.facegram.service;
 
+import com.facegram.config.CacheConfig;
 import com.facegram.dto.AuthResponse;
 import com.facegram.dto.LoginRequest;
 import com.facegram.dto.RegisterRequest;
 import com.facegram.dto.UserDTO;
-
+import com.facegram.event.TokensRevokedEvent;
+import com.facegram.repository.UserRepository;
+import com.facegram.security.CustomUserDetailsService;
 import com.facegram.security.JwtTokenProvider;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
+@Timed("facegram.service")
 public class AuthService {
     
     @Autowired
@@ -26,6 +36,21 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
     
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+    
+    // Sem transação: o BCrypt pode esperar na fila do encoder e cada consulta usa a própria
+    // conexão só pelo tempo dela, em vez de prender uma do pool durante o hash
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(
@@ -41,18 +66,31 @@ public class AuthService {
         return new AuthResponse(token, user);
     }
     
+    // O hash é feito antes da transação do cadastro; o email é conferido antes para não gastar
+    // BCrypt à toa e de novo no createUser, que é quem garante. Logo após o cadastro a senha
+    // acabou de ser definida, então o token sai direto do usuário criado, sem um segundo BCrypt.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest registerRequest) {
-    UserDTO user = userService.createUser(registerRequest);
-
-    Authentication authentication = authenticationManager.authenticate(
-        new UsernamePasswordAuthenticationToken(
-            registerRequest.getEmail(),
-            registerRequest.getPassword()
-        )
-    );
-
-    String token = tokenProvider.generateToken(authentication);
-    return new AuthResponse(token, user);
-}
+        if (userRepository.existsByEmail(registerRequest.getEmail())) {
+            throw new RuntimeException("Email já está em uso");
+        }
+        
+        String encodedPassword = passwordEncoder.encode(registerRequest.getPassword());
+        UserDTO user = userService.createUser(registerRequest, encodedPassword);
+        
+        UserDetails principal = customUserDetailsService.loadUserById(user.getId());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            principal, null, principal.getAuthorities());
+        
+        String token = tokenProvider.generateToken(authentication);
+        return new AuthResponse(token, user);
+    }
+    
+    // Revoga todos os tokens já emitidos para o usuário (logout em todos os dispositivos)
+    @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPALS, key = "#userId")
+    public void logout(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        eventPublisher.publishEvent(new TokensRevokedEvent(userId, userRepository.findTokenVersionById(userId)));
+    }
 
 }
\ No newline at end of file
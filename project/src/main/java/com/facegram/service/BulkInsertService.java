@@ -0,0 +1,129 @@
+package com.facegram.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Caminho de carga em massa para importações e datasets de teste: INSERT em lote via JDBC,
+// sem entidades nem contexto de persistência, com ids vindos direto das sequências.
+// Não deduplica: uma curtida repetida viola a unique (user_id, post_id) e desfaz a chamada
+// inteira. Os contadores dos posts são ajustados na mesma transação.
+@Service
+@Transactional
+public class BulkInsertService {
+    
+    private static final String INSERT_LIKE =
+        "INSERT INTO likes (id, user_id, post_id, created_at) VALUES (nextval('likes_seq'), ?, ?, ?)";
+    private static final String INSERT_COMMENT =
+        "INSERT INTO comments (id, user_id, post_id, content, created_at) VALUES (nextval('comments_seq'), ?, ?, ?, ?)";
+    private static final String UPDATE_LIKES_COUNT = "UPDATE posts SET likes_count = likes_count + ? WHERE id = ?";
+    private static final String UPDATE_COMMENTS_COUNT = "UPDATE posts SET comments_count = comments_count + ? WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${facegram.bulk.batch-size:1000}")
+    private int batchSize;
+    
+    public int insertLikes(List<LikeRow> likes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_LIKE, likes, batchSize, (ps, like) -> {
+            ps.setLong(1, like.getUserId());
+            ps.setLong(2, like.getPostId());
+            ps.setTimestamp(3, like.getCreatedAt() != null ? Timestamp.valueOf(like.getCreatedAt()) : now);
+        });
+        
+        Map<Long, Long> deltas = new TreeMap<>();
+        likes.forEach(like -> deltas.merge(like.getPostId(), 1L, Long::sum));
+        updateCounters(UPDATE_LIKES_COUNT, deltas);
+        return likes.size();
+    }
+    
+    public int insertComments(List<CommentRow> comments) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_COMMENT, comments, batchSize, (ps, comment) -> {
+            ps.setLong(1, comment.getUserId());
+            ps.setLong(2, comment.getPostId());
+            ps.setString(3, comment.getContent());
+            ps.setTimestamp(4, comment.getCreatedAt() != null ? Timestamp.valueOf(comment.getCreatedAt()) : now);
+        });
+        
+        Map<Long, Long> deltas = new TreeMap<>();
+        comments.forEach(comment -> deltas.merge(comment.getPostId(), 1L, Long::sum));
+        updateCounters(UPDATE_COMMENTS_COUNT, deltas);
+        return comments.size();
+    }
+    
+    // Um UPDATE por post, em ordem de id (TreeMap) para não gerar deadlock entre cargas paralelas.
+    // As contagens vêm da própria lista: com reWriteBatchedInserts o driver não informa linhas por item.
+    private void updateCounters(String sql, Map<Long, Long> deltas) {
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, delta) -> updates.add(new Object[] { delta, postId }));
+        jdbcTemplate.batchUpdate(sql, updates);
+    }
+    
+    public static final class LikeRow {
+        
+        private final long userId;
+        private final long postId;
+        private final LocalDateTime createdAt;
+        
+        public LikeRow(long userId, long postId, LocalDateTime createdAt) {
+            this.userId = userId;
+            this.postId = postId;
+            this.createdAt = createdAt;
+        }
+        
+        public long getUserId() {
+            return userId;
+        }
+        
+        public long getPostId() {
+            return postId;
+        }
+        
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+    
+    public static final class CommentRow {
+        
+        private final long userId;
+        private final long postId;
+        private final String content;
+        private final LocalDateTime createdAt;
+        
+        public CommentRow(long userId, long postId, String content, LocalDateTime createdAt) {
+            this.userId = userId;
+            this.postId = postId;
+            this.content = content;
+            this.createdAt = createdAt;
+        }
+        
+        public long getUserId() {
+            return userId;
+        }
+        
+        public long getPostId() {
+            return postId;
+        }
+        
+        public String getContent() {
+            return content;
+        }
+        
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
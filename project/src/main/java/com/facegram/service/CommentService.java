@@ -1,25 +1,42 @@
 package com.facegram.service;
 
+import com.facegram.config.CacheConfig;
 import com.facegram.dto.CommentDTO;
-import com.facegram.dto.UserDTO;
+import com.facegram.dto.Cursor;
+import com.facegram.dto.CursorPage;
+import com.facegram.mapper.CommentMapper;
 import com.facegram.model.Comment;
 import com.facegram.model.Post;
 import com.facegram.model.User;
 import com.facegram.repository.CommentRepository;
 import com.facegram.repository.PostRepository;
-import org.modelmapper.ModelMapper;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed("facegram.service")
 public class CommentService {
     
+    private static final int MAX_CURSOR_LIMIT = 100;
+    private static final int MAX_PREVIEW_POSTS = 50;
+    private static final int MAX_PREVIEW_COMMENTS = 10;
+    
     @Autowired
     private CommentRepository commentRepository;
     
@@ -30,8 +47,12 @@ public class CommentService {
     private UserService userService;
     
     @Autowired
-    private ModelMapper modelMapper;
+    private CommentMapper commentMapper;
+    
+    @Autowired
+    private CacheManager cacheManager;
     
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public CommentDTO createComment(String content, Long postId, Long userId) {
         User user = userService.findUserEntityById(userId);
         Post post = postRepository.findById(postId)
@@ -43,30 +64,60 @@ public class CommentService {
         comment.setPost(post);
         
         Comment savedComment = commentRepository.save(comment);
-        return convertToDTO(savedComment);
+        postRepository.incrementCommentsCount(postId, 1);
+        return commentMapper.toDTO(savedComment);
     }
     
     public Optional<CommentDTO> getCommentById(Long id) {
-        return commentRepository.findById(id)
-                .map(this::convertToDTO);
+        return commentRepository.findWithUserById(id)
+                .map(commentMapper::toDTO);
     }
     
-    public List<CommentDTO> getCommentsByPostId(Long postId) {
-        return commentRepository.findByPostIdOrderByCreatedAtAsc(postId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPage<CommentDTO> getCommentsByPostIdAfter(Long postId, String after, int limit) {
+        int pageSize = cursorPageSize(limit);
+        Cursor cursor = after == null ? Cursor.OLDEST : Cursor.decode(after);
+        List<Comment> comments = commentRepository.findThreadAfter(postId, cursor.getCreatedAt(), cursor.getId(),
+                Limit.of(pageSize + 1));
+        return toCursorPage(comments, pageSize);
     }
     
-    public List<CommentDTO> getCommentsByUserId(Long userId) {
-        return commentRepository.findByUserIdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPage<CommentDTO> getCommentsByUserIdAfter(Long userId, String after, int limit) {
+        int pageSize = cursorPageSize(limit);
+        Cursor cursor = after == null ? Cursor.NEWEST : Cursor.decode(after);
+        List<Comment> comments = commentRepository.findUserCommentsAfter(userId, cursor.getCreatedAt(), cursor.getId(),
+                Limit.of(pageSize + 1));
+        return toCursorPage(comments, pageSize);
+    }
+    
+    // Primeiros comentários de vários posts de uma vez (comentários inline do feed), com duas consultas
+    public Map<Long, List<CommentDTO>> getCommentPreviews(Collection<Long> postIds, int limit) {
+        Set<Long> distinctPostIds = new LinkedHashSet<>(postIds);
+        if (distinctPostIds.size() > MAX_PREVIEW_POSTS) {
+            throw new RuntimeException("Máximo de " + MAX_PREVIEW_POSTS + " posts por prévia");
+        }
+        
+        Map<Long, List<CommentDTO>> previews = new LinkedHashMap<>();
+        for (Long postId : distinctPostIds) {
+            previews.put(postId, new ArrayList<>());
+        }
+        if (distinctPostIds.isEmpty()) {
+            return previews;
+        }
+        
+        int perPost = Math.max(1, Math.min(limit, MAX_PREVIEW_COMMENTS));
+        List<Long> commentIds = commentRepository.findPreviewIds(distinctPostIds, perPost);
+        if (commentIds.isEmpty()) {
+            return previews;
+        }
+        
+        for (Comment comment : commentRepository.findAllWithUserByIdIn(commentIds)) {
+            previews.get(comment.getPost().getId()).add(commentMapper.toDTO(comment));
+        }
+        return previews;
     }
     
     public CommentDTO updateComment(Long id, String content, Long userId) {
-        Comment comment = commentRepository.findById(id)
+        Comment comment = commentRepository.findWithUserById(id)
                 .orElseThrow(() -> new RuntimeException("Comentário não encontrado"));
         
         if (!comment.getUser().getId().equals(userId)) {
@@ -75,7 +126,7 @@ public class CommentService {
         
         comment.setContent(content);
         Comment updatedComment = commentRepository.save(comment);
-        return convertToDTO(updatedComment);
+        return commentMapper.toDTO(updatedComment);
     }
     
     public void deleteComment(Long id, Long userId) {
@@ -87,16 +138,24 @@ public class CommentService {
         }
         
         commentRepository.deleteById(id);
+        postRepository.incrementCommentsCount(comment.getPost().getId(), -1);
+        cacheManager.getCache(CacheConfig.POSTS).evict(comment.getPost().getId());
     }
     
-    private CommentDTO convertToDTO(Comment comment) {
-        CommentDTO commentDTO = modelMapper.map(comment, CommentDTO.class);
-        
-        // Converter user para UserDTO
-        UserDTO userDTO = modelMapper.map(comment.getUser(), UserDTO.class);
-        commentDTO.setUser(userDTO);
-        commentDTO.setPostId(comment.getPost().getId());
-        
-        return commentDTO;
+    private int cursorPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT));
+    }
+    
+    // As consultas buscam um item além do limite só para saber se existe próxima página
+    private CursorPage<CommentDTO> toCursorPage(List<Comment> comments, int limit) {
+        String nextCursor = null;
+        if (comments.size() > limit) {
+            comments = comments.subList(0, limit);
+            Comment last = comments.get(limit - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(comments.stream()
+                .map(commentMapper::toDTO)
+                .collect(Collectors.toList()), nextCursor);
     }
 }
\ No newline at end of file
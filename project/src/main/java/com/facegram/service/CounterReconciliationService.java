@@ -0,0 +1,87 @@
+package com.facegram.service;
+
+import com.facegram.repository.PostRepository;
+import com.facegram.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// Corrige divergências dos contadores desnormalizados (posts, curtidas e
+// comentários) em faixas limitadas de ids. Cada faixa roda em sua própria
+// transação e só trava as linhas divergentes, nunca a tabela inteira.
+@Service
+public class CounterReconciliationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CounterReconciliationService.class);
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${facegram.counters.reconciliation.batch-size:1000}")
+    private int batchSize;
+    
+    @Scheduled(initialDelayString = "${facegram.counters.reconciliation.interval-ms:3600000}",
+               fixedDelayString = "${facegram.counters.reconciliation.interval-ms:3600000}")
+    public void reconcileAll() {
+        int fixedPosts = reconcilePosts();
+        int fixedUsers = reconcileUsers();
+        
+        if (fixedPosts > 0 || fixedUsers > 0) {
+            logger.info("Contadores corrigidos: {} posts, {} usuários", fixedPosts, fixedUsers);
+        }
+    }
+    
+    public int reconcilePosts() {
+        return reconcile(postRepository.findMaxId(), postRepository::findIdsWithCounterDrift,
+                postRepository::lockByIdIn, postRepository::reconcileCounters);
+    }
+    
+    public int reconcileUsers() {
+        return reconcile(userRepository.findMaxId(), userRepository::findIdsWithCounterDrift,
+                userRepository::lockByIdIn, userRepository::reconcileCounters);
+    }
+    
+    // Um UPDATE direto com COUNT(*) podia gravar uma contagem lida antes de um incremento
+    // confirmado durante o comando. Aqui as linhas candidatas são travadas primeiro (quem
+    // está incrementando termina antes) e o UPDATE, com leitura nova, só corrige o que
+    // continua divergente.
+    private int reconcile(Long maxId, DriftFinder driftFinder, Function<Collection<Long>, List<Long>> locker,
+                          ToIntFunction<Collection<Long>> reconciler) {
+        if (maxId == null) {
+            return 0;
+        }
+        
+        int fixed = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += batchSize) {
+            List<Long> driftedIds = driftFinder.find(fromId, fromId + batchSize);
+            if (driftedIds.isEmpty()) {
+                continue;
+            }
+            fixed += transactionTemplate.execute(status -> {
+                locker.apply(driftedIds);
+                return reconciler.applyAsInt(driftedIds);
+            });
+        }
+        return fixed;
+    }
+    
+    @FunctionalInterface
+    private interface DriftFinder {
+        List<Long> find(Long fromId, Long toId);
+    }
+}
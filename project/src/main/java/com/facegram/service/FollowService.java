@@ -0,0 +1,67 @@
+package com.facegram.service;
+
+import com.facegram.config.CacheConfig;
+import com.facegram.event.FollowChangedEvent;
+import com.facegram.model.Follow;
+import com.facegram.repository.FollowRepository;
+import com.facegram.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class FollowService {
+    
+    @Autowired
+    private FollowRepository followRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.USERS, key = "#followerId"),
+        @CacheEvict(cacheNames = CacheConfig.USERS, key = "#followedId")
+    })
+    public void follow(Long followerId, Long followedId) {
+        if (followerId.equals(followedId)) {
+            throw new RuntimeException("Você não pode seguir a si mesmo");
+        }
+        if (!userRepository.existsById(followedId)) {
+            throw new RuntimeException("Usuário não encontrado");
+        }
+        if (followRepository.existsByFollowerIdAndFollowedId(followerId, followedId)) {
+            return;
+        }
+        
+        followRepository.save(new Follow(
+            userRepository.getReferenceById(followerId),
+            userRepository.getReferenceById(followedId)
+        ));
+        userRepository.incrementFollowingCount(followerId, 1);
+        userRepository.incrementFollowersCount(followedId, 1);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followedId));
+    }
+    
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.USERS, key = "#followerId"),
+        @CacheEvict(cacheNames = CacheConfig.USERS, key = "#followedId")
+    })
+    public void unfollow(Long followerId, Long followedId) {
+        if (followRepository.deleteByFollowerIdAndFollowedId(followerId, followedId) > 0) {
+            userRepository.incrementFollowingCount(followerId, -1);
+            userRepository.incrementFollowersCount(followedId, -1);
+            eventPublisher.publishEvent(new FollowChangedEvent(followerId, followedId));
+        }
+    }
+    
+    public boolean isFollowing(Long followerId, Long followedId) {
+        return followRepository.existsByFollowerIdAndFollowedId(followerId, followedId);
+    }
+}
@@ -1,16 +1,17 @@
 package com.facegram.service;
 
-import com.facegram.model.Like;
-import com.facegram.model.Post;
-import com.facegram.model.User;
+import com.facegram.config.CacheConfig;
 import com.facegram.repository.LikeRepository;
 import com.facegram.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
+@Timed("facegram.service")
 public class LikeService {
     
     @Autowired
@@ -20,26 +21,93 @@ public class LikeService {
     private PostRepository postRepository;
     
     @Autowired
-    private UserService userService;
+    private LikeWriteBuffer likeWriteBuffer;
     
+    // Curtir é idempotente: repetir a chamada não muda nada. Retorna a contagem atualizada.
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
+    public long like(Long postId, Long userId) {
+        if (likeWriteBuffer.isEnabled()) {
+            return bufferLike(postId, userId, true);
+        }
+        
+        long likesCount = lockLikesCount(postId);
+        return likesCount + insertLike(postId, userId);
+    }
+    
+    // Descurtir também é idempotente; o contador só muda se a curtida existia
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
+    public long unlike(Long postId, Long userId) {
+        if (likeWriteBuffer.isEnabled()) {
+            return bufferLike(postId, userId, false);
+        }
+        
+        long likesCount = lockLikesCount(postId);
+        return likesCount - deleteLike(postId, userId);
+    }
+    
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public boolean toggleLike(Long postId, Long userId) {
-        User user = userService.findUserEntityById(userId);
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post não encontrado"));
+        if (likeWriteBuffer.isEnabled()) {
+            boolean liked = !isPostLikedByUser(postId, userId);
+            bufferLike(postId, userId, liked);
+            return liked;
+        }
+        
+        lockLikesCount(postId);
         
         if (likeRepository.existsByUserIdAndPostId(userId, postId)) {
             // Se já curtiu, remove a curtida
-            likeRepository.deleteByUserIdAndPostId(userId, postId);
+            deleteLike(postId, userId);
             return false; // Descurtiu
         } else {
             // Se não curtiu, adiciona a curtida
-            Like like = new Like(user, post);
-            likeRepository.save(like);
+            insertLike(postId, userId);
             return true; // Curtiu
         }
     }
     
     public boolean isPostLikedByUser(Long postId, Long userId) {
+        Boolean pendingState = likeWriteBuffer.getPendingState(postId, userId);
+        if (pendingState != null) {
+            return pendingState;
+        }
         return likeRepository.existsByUserIdAndPostId(userId, postId);
     }
-}
\ No newline at end of file
+    
+    // Write-behind: só leituras sem trava aqui; a gravação fica para o próximo flush.
+    // A contagem devolvida é a gravada ajustada pela ação deste usuário.
+    private long bufferLike(Long postId, Long userId, boolean liked) {
+        long likesCount = postRepository.findLikesCountById(postId)
+                .orElseThrow(() -> new RuntimeException("Post não encontrado"));
+        boolean storedLiked = likeRepository.existsByUserIdAndPostId(userId, postId);
+        
+        likeWriteBuffer.accept(postId, userId, liked);
+        return likesCount + (liked ? 1 : 0) - (storedLiked ? 1 : 0);
+    }
+    
+    // A trava da linha do post é o desenho escolhido para serializar curtidas, no lugar de
+    // INSERT ... ON CONFLICT/MERGE: enquanto ela vale até o commit, a verificação de existência
+    // já enxerga qualquer curtida concorrente confirmada antes, então nunca há violação da
+    // unique (user_id, post_id) nem contador fora de sincronia. O custo é enfileirar as
+    // escritas de um mesmo post; posts muito disputados usam o write-behind
+    private long lockLikesCount(Long postId) {
+        return postRepository.lockLikesCountById(postId)
+                .orElseThrow(() -> new RuntimeException("Post não encontrado"));
+    }
+    
+    private int insertLike(Long postId, Long userId) {
+        int inserted = likeRepository.insertIfAbsent(userId, postId);
+        if (inserted > 0) {
+            postRepository.incrementLikesCount(postId, inserted);
+        }
+        return inserted;
+    }
+    
+    private int deleteLike(Long postId, Long userId) {
+        int deleted = likeRepository.deleteByUserIdAndPostIdReturningCount(userId, postId);
+        if (deleted > 0) {
+            postRepository.incrementLikesCount(postId, -deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,207 @@
+package com.facegram.service;
+
+import com.facegram.config.CacheConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Modo write-behind das curtidas: as requisições só registram o estado desejado em memória
+// (o último vence por usuário e post) e um flush periódico grava tudo em lotes JDBC.
+// Em um post viral as curtidas deixam de disputar a linha do post a cada requisição.
+// Um desligamento normal grava o que estiver pendente; uma queda abrupta perde no máximo
+// um intervalo de flush, que a reconciliação de contadores não recupera.
+@Component
+public class LikeWriteBuffer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LikeWriteBuffer.class);
+    
+    private static final String INSERT_LIKE =
+        "INSERT INTO likes (id, user_id, post_id, created_at) " +
+        "SELECT nextval('likes_seq'), ?, p.id, CURRENT_TIMESTAMP FROM posts p WHERE p.id = ? " +
+        "AND NOT EXISTS (SELECT 1 FROM likes l WHERE l.user_id = ? AND l.post_id = ?)";
+    private static final String DELETE_LIKE = "DELETE FROM likes WHERE user_id = ? AND post_id = ?";
+    private static final String UPDATE_LIKES_COUNT = "UPDATE posts SET likes_count = likes_count + ? WHERE id = ?";
+    
+    @Value("${facegram.likes.write-behind.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${facegram.likes.write-behind.batch-size:500}")
+    private int batchSize;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    // Chave composta: mesmo num único post quente as entradas se espalham pelos segmentos do mapa
+    private final ConcurrentHashMap<LikeKey, Boolean> pending = new ConcurrentHashMap<>();
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void accept(Long postId, Long userId, boolean liked) {
+        pending.put(new LikeKey(postId, userId), liked);
+    }
+    
+    // Estado ainda não gravado, para o próprio usuário ver a curtida antes do flush (null se não há)
+    public Boolean getPendingState(Long postId, Long userId) {
+        return pending.get(new LikeKey(postId, userId));
+    }
+    
+    public Map<Long, Boolean> getPendingStates(Long userId, Collection<Long> postIds) {
+        Map<Long, Boolean> states = new HashMap<>();
+        if (pending.isEmpty()) {
+            return states;
+        }
+        for (Long postId : postIds) {
+            Boolean state = pending.get(new LikeKey(postId, userId));
+            if (state != null) {
+                states.put(postId, state);
+            }
+        }
+        return states;
+    }
+    
+    // Um flush por vez: o agendador e o desligamento não gravam em paralelo
+    @Scheduled(fixedDelayString = "${facegram.likes.write-behind.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        List<Map.Entry<LikeKey, Boolean>> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<LikeKey, Boolean> entry : pending.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() == batchSize) {
+                flushBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!pending.isEmpty()) {
+            logger.info("Gravando {} curtidas pendentes antes de desligar", pending.size());
+            flush();
+        }
+    }
+    
+    private void flushBatch(List<Map.Entry<LikeKey, Boolean>> batch) {
+        try {
+            Map<Long, Long> deltas = transactionTemplate.execute(status -> write(batch));
+            evictPosts(deltas);
+            batch.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+        } catch (DataAccessException ex) {
+            // Um item inválido (post ou usuário removido) não pode travar o lote inteiro
+            logger.warn("Falha ao gravar lote de curtidas, gravando uma a uma: {}", ex.getMessage());
+            batch.forEach(this::flushSingle);
+        }
+    }
+    
+    private void flushSingle(Map.Entry<LikeKey, Boolean> entry) {
+        try {
+            evictPosts(transactionTemplate.execute(status -> write(List.of(entry))));
+        } catch (DataAccessException ex) {
+            logger.warn("Curtida descartada (post {}, usuário {}): {}",
+                    entry.getKey().postId, entry.getKey().userId, ex.getMessage());
+        }
+        pending.remove(entry.getKey(), entry.getValue());
+    }
+    
+    // Retorna a variação líquida de curtidas por post efetivamente gravada
+    private Map<Long, Long> write(List<Map.Entry<LikeKey, Boolean>> batch) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (Map.Entry<LikeKey, Boolean> entry : batch) {
+            LikeKey key = entry.getKey();
+            if (entry.getValue()) {
+                inserts.add(new Object[] { key.userId, key.postId, key.userId, key.postId });
+            } else {
+                deletes.add(new Object[] { key.userId, key.postId });
+            }
+        }
+        
+        // TreeMap: os contadores são atualizados em ordem de id, sem risco de deadlock entre flushes
+        Map<Long, Long> deltas = new TreeMap<>();
+        addDeltas(deltas, inserts, jdbcTemplate.batchUpdate(INSERT_LIKE, inserts), 1);
+        addDeltas(deltas, deletes, jdbcTemplate.batchUpdate(DELETE_LIKE, deletes), -1);
+        
+        List<Object[]> counterUpdates = new ArrayList<>();
+        deltas.forEach((postId, delta) -> {
+            if (delta != 0) {
+                counterUpdates.add(new Object[] { delta, postId });
+            }
+        });
+        jdbcTemplate.batchUpdate(UPDATE_LIKES_COUNT, counterUpdates);
+        return deltas;
+    }
+    
+    private void addDeltas(Map<Long, Long> deltas, List<Object[]> rows, int[] updateCounts, int sign) {
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] > 0) {
+                // O post é o segundo parâmetro nas duas instruções
+                deltas.merge((Long) rows.get(i)[1], (long) sign * updateCounts[i], Long::sum);
+            }
+        }
+    }
+    
+    private void evictPosts(Map<Long, Long> deltas) {
+        Cache postCache = cacheManager.getCache(CacheConfig.POSTS);
+        deltas.keySet().forEach(postCache::evict);
+    }
+    
+    private static final class LikeKey {
+        
+        private final Long postId;
+        private final Long userId;
+        
+        private LikeKey(Long postId, Long userId) {
+            this.postId = postId;
+            this.userId = userId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LikeKey)) {
+                return false;
+            }
+            LikeKey other = (LikeKey) o;
+            return postId.equals(other.postId) && userId.equals(other.userId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(postId, userId);
+        }
+    }
+}
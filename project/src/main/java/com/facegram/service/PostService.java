@@ -1,37 +1,87 @@
 package com.facegram.service;
 
+import com.facegram.config.CacheConfig;
+import com.facegram.dto.Cursor;
+import com.facegram.dto.CursorPage;
 import com.facegram.dto.PostDTO;
 import com.facegram.dto.UserDTO;
+import com.facegram.event.PostCreatedEvent;
+import com.facegram.event.PostDeletedEvent;
+import com.facegram.event.PostUpdatedEvent;
+import com.facegram.mapper.PostMapper;
+import com.facegram.mapper.UserMapper;
 import com.facegram.model.Post;
 import com.facegram.model.User;
 import com.facegram.repository.LikeRepository;
 import com.facegram.repository.PostRepository;
-import org.modelmapper.ModelMapper;
+import com.facegram.repository.UserRepository;
+import com.facegram.search.SearchHits;
+import com.facegram.search.SearchIndex;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed("facegram.service")
 public class PostService {
     
+    private static final int MAX_CURSOR_LIMIT = 50;
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    
     @Autowired
     private PostRepository postRepository;
     
     @Autowired
     private LikeRepository likeRepository;
     
+    @Autowired
+    private UserRepository userRepository;
+    
     @Autowired
     private UserService userService;
     
     @Autowired
-    private ModelMapper modelMapper;
+    private PostMapper postMapper;
+    
+    @Autowired
+    private UserMapper userMapper;
+    
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
+    @Autowired
+    private SearchIndex searchIndex;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public PostDTO createPost(String content, String imageUrl, Long userId) {
         User user = userService.findUserEntityById(userId);
         
@@ -40,29 +90,104 @@ public class PostService {
         post.setImageUrl(imageUrl);
         post.setUser(user);
         
-        Post savedPost = postRepository.save(post);
+        // Flush já aqui: created_at é gerado no INSERT e entra no evento (ordem da timeline)
+        Post savedPost = postRepository.saveAndFlush(post);
+        userRepository.incrementPostsCount(userId, 1);
+        eventPublisher.publishEvent(new PostCreatedEvent(savedPost.getId(), userId, content, savedPost.getCreatedAt()));
         return convertToDTO(savedPost, userId);
     }
     
     public Optional<PostDTO> getPostById(Long id, Long currentUserId) {
-        return postRepository.findById(id)
-                .map(post -> convertToDTO(post, currentUserId));
+        return getPostsByIds(List.of(id), currentUserId).stream().findFirst();
     }
     
     public Page<PostDTO> getAllPosts(int page, int size, Long currentUserId) {
         Pageable pageable = PageRequest.of(page, size);
-        return postRepository.findAllOrderByCreatedAtDesc(pageable)
-                .map(post -> convertToDTO(post, currentUserId));
+        return convertPageToDTO(postRepository.findAllOrderByCreatedAtDesc(pageable), currentUserId);
     }
     
     public Page<PostDTO> getPostsByUserId(Long userId, int page, int size, Long currentUserId) {
         Pageable pageable = PageRequest.of(page, size);
-        return postRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(post -> convertToDTO(post, currentUserId));
+        return convertPageToDTO(postRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable), currentUserId);
+    }
+    
+    public CursorPage<PostDTO> getPostsAfter(String after, int limit, Long currentUserId) {
+        int pageSize = cursorPageSize(limit);
+        List<Post> posts;
+        if (after == null) {
+            posts = postRepository.findTimeline(Limit.of(pageSize + 1));
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            posts = postRepository.findTimelineAfter(cursor.getCreatedAt(), cursor.getId(), Limit.of(pageSize + 1));
+        }
+        return toCursorPage(posts, pageSize, currentUserId);
+    }
+    
+    public CursorPage<PostDTO> getPostsByUserIdAfter(Long userId, String after, int limit, Long currentUserId) {
+        int pageSize = cursorPageSize(limit);
+        Cursor cursor = after == null ? Cursor.NEWEST : Cursor.decode(after);
+        List<Post> posts = postRepository.findUserTimelineAfter(userId, cursor.getCreatedAt(), cursor.getId(),
+                Limit.of(pageSize + 1));
+        return toCursorPage(posts, pageSize, currentUserId);
     }
     
+    // Busca no índice invertido em memória; o banco só é consultado para hidratar a página
+    public Page<PostDTO> searchPosts(String query, int page, int size, Long currentUserId) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        int pageNumber = Math.max(page, 0);
+        SearchHits hits = searchIndex.searchPosts(query, pageNumber * pageSize, pageSize);
+        return new PageImpl<>(getPostsByIds(hits.getIds(), currentUserId),
+                PageRequest.of(pageNumber, pageSize), hits.getTotal());
+    }
+    
+    // Hidrata uma lista de ids preservando a ordem; ids de posts removidos são ignorados.
+    // Corpos dos posts e perfis dos autores vêm dos caches; só as faltas vão ao banco.
+    public List<PostDTO> getPostsByIds(List<Long> ids, Long currentUserId) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        Cache postCache = cacheManager.getCache(CacheConfig.POSTS);
+        Map<Long, PostDTO> bodies = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            PostDTO body = postCache.get(id, PostDTO.class);
+            if (body != null) {
+                bodies.put(id, body);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        
+        if (!missingIds.isEmpty()) {
+            Cache userCache = cacheManager.getCache(CacheConfig.USERS);
+            for (Post post : postRepository.findAllWithUserByIdIn(missingIds)) {
+                // O autor fica no cache de usuários; o corpo guarda apenas o id dele
+                PostDTO body = postMapper.toBody(post);
+                postCache.put(post.getId(), body);
+                userCache.putIfAbsent(post.getUser().getId(), userMapper.toDTO(post.getUser()));
+                bodies.put(post.getId(), body);
+            }
+        }
+        
+        Set<Long> authorIds = bodies.values().stream()
+                .map(body -> body.getUser().getId())
+                .collect(Collectors.toSet());
+        Map<Long, UserDTO> authors = userService.getUsersByIds(authorIds);
+        Set<Long> likedPostIds = findLikedPostIds(currentUserId, bodies.keySet());
+        
+        return ids.stream()
+                .filter(bodies::containsKey)
+                .map(id -> {
+                    PostDTO body = bodies.get(id);
+                    return forViewer(body, authors.get(body.getUser().getId()), likedPostIds.contains(id));
+                })
+                .collect(Collectors.toList());
+    }
+    
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#id")
     public PostDTO updatePost(Long id, String content, String imageUrl, Long userId) {
-        Post post = postRepository.findById(id)
+        Post post = postRepository.findWithUserById(id)
                 .orElseThrow(() -> new RuntimeException("Post não encontrado"));
         
         if (!post.getUser().getId().equals(userId)) {
@@ -73,9 +198,14 @@ public class PostService {
         post.setImageUrl(imageUrl);
         
         Post updatedPost = postRepository.save(post);
+        eventPublisher.publishEvent(new PostUpdatedEvent(id, content));
         return convertToDTO(updatedPost, userId);
     }
     
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
+    })
     public void deletePost(Long id, Long userId) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post não encontrado"));
@@ -85,26 +215,82 @@ public class PostService {
         }
         
         postRepository.deleteById(id);
+        userRepository.incrementPostsCount(userId, -1);
+        eventPublisher.publishEvent(new PostDeletedEvent(id));
     }
     
     private PostDTO convertToDTO(Post post, Long currentUserId) {
-        PostDTO postDTO = modelMapper.map(post, PostDTO.class);
-        
-        // Converter user para UserDTO
-        UserDTO userDTO = modelMapper.map(post.getUser(), UserDTO.class);
-        postDTO.setUser(userDTO);
+        return convertToDTOs(List.of(post), currentUserId).get(0);
+    }
+    
+    private Page<PostDTO> convertPageToDTO(Page<Post> posts, Long currentUserId) {
+        return new PageImpl<>(convertToDTOs(posts.getContent(), currentUserId),
+                posts.getPageable(), posts.getTotalElements());
+    }
+    
+    private int cursorPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT));
+    }
+    
+    // As consultas buscam um item além do limite só para saber se existe próxima página
+    private CursorPage<PostDTO> toCursorPage(List<Post> posts, int limit, Long currentUserId) {
+        String nextCursor = null;
+        if (posts.size() > limit) {
+            posts = posts.subList(0, limit);
+            Post last = posts.get(limit - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(convertToDTOs(posts, currentUserId), nextCursor);
+    }
+    
+    // Monta os DTOs de uma página inteira com um número fixo de consultas,
+    // independente da quantidade de posts (os autores já vêm no JOIN FETCH
+    // e as contagens são colunas do próprio post)
+    private List<PostDTO> convertToDTOs(List<Post> posts, Long currentUserId) {
+        if (posts.isEmpty()) {
+            return Collections.emptyList();
+        }
         
-        // Contar curtidas e comentários
-        postDTO.setLikesCount(postRepository.countLikesByPostId(post.getId()));
-        postDTO.setCommentsCount(postRepository.countCommentsByPostId(post.getId()));
+        List<Long> postIds = posts.stream()
+                .map(Post::getId)
+                .collect(Collectors.toList());
+        Set<Long> likedPostIds = findLikedPostIds(currentUserId, postIds);
         
-        // Verificar se o usuário atual curtiu o post
-        if (currentUserId != null) {
-            postDTO.setLikedByCurrentUser(
-                likeRepository.existsByUserIdAndPostId(currentUserId, post.getId())
-            );
+        return posts.stream()
+                .map(post -> {
+                    PostDTO postDTO = postMapper.toDTO(post);
+                    postDTO.setLikedByCurrentUser(likedPostIds.contains(post.getId()));
+                    return postDTO;
+                })
+                .collect(Collectors.toList());
+    }
+    
+    private Set<Long> findLikedPostIds(Long currentUserId, Collection<Long> postIds) {
+        if (currentUserId == null || postIds.isEmpty()) {
+            return Collections.emptySet();
         }
+        Set<Long> likedPostIds = new HashSet<>(likeRepository.findLikedPostIds(currentUserId, postIds));
         
+        // Curtidas ainda no buffer write-behind valem para o próprio usuário
+        likeWriteBuffer.getPendingStates(currentUserId, postIds).forEach((postId, liked) -> {
+            if (liked) {
+                likedPostIds.add(postId);
+            } else {
+                likedPostIds.remove(postId);
+            }
+        });
+        return likedPostIds;
+    }
+    
+    // Cópia por requisição: o corpo em cache é compartilhado e não pode ser alterado
+    private PostDTO forViewer(PostDTO body, UserDTO author, boolean likedByCurrentUser) {
+        PostDTO postDTO = new PostDTO(body.getId(), body.getContent(), author);
+        postDTO.setImageUrl(body.getImageUrl());
+        postDTO.setCreatedAt(body.getCreatedAt());
+        postDTO.setUpdatedAt(body.getUpdatedAt());
+        postDTO.setLikesCount(body.getLikesCount());
+        postDTO.setCommentsCount(body.getCommentsCount());
+        postDTO.setLikedByCurrentUser(likedByCurrentUser);
         return postDTO;
     }
 }
\ No newline at end of file
@@ -1,33 +1,118 @@
 package com.facegram.service;
 
+import com.facegram.config.CacheConfig;
+import com.facegram.dto.Cursor;
+import com.facegram.dto.CursorPage;
 import com.facegram.dto.RegisterRequest;
 import com.facegram.dto.UserDTO;
+import com.facegram.mapper.UserMapper;
+import com.facegram.event.UserDeletedEvent;
+import com.facegram.event.UserProfileChangedEvent;
 import com.facegram.model.User;
+import com.facegram.repository.CommentRepository;
+import com.facegram.repository.FollowRepository;
+import com.facegram.repository.LikeRepository;
+import com.facegram.repository.PostRepository;
 import com.facegram.repository.UserRepository;
-import org.modelmapper.ModelMapper;
+import com.facegram.search.SearchHits;
+import com.facegram.search.SearchIndex;
+import com.facegram.search.UserCompletionIndex;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed("facegram.service")
 public class UserService {
     
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_CURSOR_LIMIT = 100;
+    
+    // Exportação lê só as colunas do DTO, sem entidades nem contexto de persistência
+    private static final String EXPORT_CHUNK_SQL =
+        "SELECT id, name, email, bio, location, avatar_url, cover_photo_url, created_at, " +
+        "posts_count, followers_count, following_count FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    
+    private static final RowMapper<UserDTO> EXPORT_ROW_MAPPER = (rs, rowNum) -> {
+        UserDTO userDTO = new UserDTO(rs.getLong("id"), rs.getString("name"), rs.getString("email"));
+        userDTO.setBio(rs.getString("bio"));
+        userDTO.setLocation(rs.getString("location"));
+        userDTO.setAvatarUrl(rs.getString("avatar_url"));
+        userDTO.setCoverPhotoUrl(rs.getString("cover_photo_url"));
+        userDTO.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        userDTO.setPostsCount(rs.getLong("posts_count"));
+        userDTO.setFollowersCount(rs.getLong("followers_count"));
+        userDTO.setFollowingCount(rs.getLong("following_count"));
+        return userDTO;
+    };
+    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private UserMapper userMapper;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private LikeRepository likeRepository;
+    
+    @Autowired
+    private FollowRepository followRepository;
+    
+    @Autowired
+    private SearchIndex searchIndex;
+    
+    @Autowired
+    private UserCompletionIndex userCompletionIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     
     @Autowired
-    private ModelMapper modelMapper;
+    private ObjectMapper objectMapper;
+    
+    @Value("${facegram.users.export-chunk-size:1000}")
+    private int exportChunkSize;
     
-    public UserDTO createUser(RegisterRequest registerRequest) {
+    // A senha chega já codificada: o BCrypt roda antes, sem transação nem conexão aberta
+    public UserDTO createUser(RegisterRequest registerRequest, String encodedPassword) {
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new RuntimeException("Email já está em uso");
         }
@@ -35,36 +120,125 @@ public class UserService {
         User user = new User();
         user.setName(registerRequest.getName());
         user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        user.setPassword(encodedPassword);
         
         User savedUser = userRepository.save(user);
-        return convertToDTO(savedUser);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(savedUser.getId(), savedUser.getName()));
+        return userMapper.toDTO(savedUser);
     }
     
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id", unless = "#result == null")
     public Optional<UserDTO> getUserById(Long id) {
         return userRepository.findById(id)
-                .map(this::convertToDTO);
+                .map(userMapper::toDTO);
+    }
+    
+    // Leitura em lote pelo cache de usuários; as faltas são buscadas numa única consulta
+    public Map<Long, UserDTO> getUsersByIds(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS);
+        Map<Long, UserDTO> users = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            UserDTO user = cache.get(id, UserDTO.class);
+            if (user != null) {
+                users.put(id, user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        
+        if (!missingIds.isEmpty()) {
+            for (User user : userRepository.findAllById(missingIds)) {
+                UserDTO userDTO = userMapper.toDTO(user);
+                cache.put(user.getId(), userDTO);
+                users.put(user.getId(), userDTO);
+            }
+        }
+        return users;
     }
     
     public Optional<UserDTO> getUserByEmail(String email) {
         return userRepository.findByEmail(email)
-                .map(this::convertToDTO);
+                .map(userMapper::toDTO);
     }
     
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAllOrderByCreatedAtDesc()
-                .stream()
-                .map(this::convertToDTO)
+    // Diretório de usuários paginado por cursor (created_at, id), mais recentes primeiro; sem after é a primeira página
+    public CursorPage<UserDTO> getUsersAfter(String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT));
+        List<User> users;
+        if (after == null) {
+            users = userRepository.findDirectory(Limit.of(pageSize + 1));
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            users = userRepository.findDirectoryAfter(cursor.getCreatedAt(), cursor.getId(), Limit.of(pageSize + 1));
+        }
+        
+        // A consulta busca um item além do limite só para saber se existe próxima página
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            User last = users.get(pageSize - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(users.stream()
+                .map(userMapper::toDTO)
+                .collect(Collectors.toList()), nextCursor);
+    }
+    
+    // Escreve todos os usuários como um array JSON, em faixas de id. Cada faixa é uma consulta
+    // curta e independente: a memória fica constante e nenhuma transação fica aberta durante
+    // o download inteiro. Quem for criado durante a exportação pode ou não aparecer.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportUsers(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(UserDTO.class);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            
+            long afterId = 0;
+            List<UserDTO> chunk;
+            do {
+                chunk = jdbcTemplate.query(EXPORT_CHUNK_SQL, EXPORT_ROW_MAPPER, afterId, exportChunkSize);
+                for (UserDTO user : chunk) {
+                    writer.writeValue(generator, user);
+                }
+                generator.flush();
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == exportChunkSize);
+            
+            generator.writeEndArray();
+        }
+    }
+    
+    // Ranking e paginação vêm do índice de busca; os perfis saem do cache de usuários
+    public List<UserDTO> searchUsersByName(String name, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        SearchHits hits = searchIndex.searchUsers(name, Math.max(page, 0) * pageSize, pageSize);
+        Map<Long, UserDTO> users = getUsersByIds(hits.getIds());
+        return hits.getIds().stream()
+                .filter(users::containsKey)
+                .map(users::get)
                 .collect(Collectors.toList());
     }
     
-    public List<UserDTO> searchUsersByName(String name) {
-        return userRepository.findByNameContaining(name)
-                .stream()
-                .map(this::convertToDTO)
+    // Chamado a cada tecla: sem transação própria, e com os perfis vindo do cache de usuários
+    // o caminho comum nem chega ao banco
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<UserDTO> autocompleteUsers(String prefix, int limit) {
+        List<Long> ids = userCompletionIndex.complete(prefix,
+                Math.max(1, Math.min(limit, UserCompletionIndex.MAX_RESULTS)));
+        Map<Long, UserDTO> users = getUsersByIds(ids);
+        return ids.stream()
+                .filter(users::containsKey)
+                .map(users::get)
                 .collect(Collectors.toList());
     }
     
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPALS, key = "#id")
+    })
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
@@ -76,14 +250,43 @@ public class UserService {
         user.setCoverPhotoUrl(userDTO.getCoverPhotoUrl());
         
         User updatedUser = userRepository.save(user);
-        return convertToDTO(updatedUser);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(id, updatedUser.getName()));
+        return userMapper.toDTO(updatedUser);
     }
     
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.USER_PRINCIPALS, key = "#id")
+    })
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new RuntimeException("Usuário não encontrado");
         }
-        userRepository.deleteById(id);
+        List<Long> postIds = postRepository.findIdsByUserId(id);
+        
+        // Os contadores dos posts e usuários afetados são descontados agora, não na próxima
+        // reconciliação, e antes dos DELETEs, que apagam as linhas usadas no desconto
+        List<Long> engagedPostIds = postRepository.findIdsEngagedByUser(id);
+        List<Long> connectedUserIds = userRepository.findConnectedIds(id);
+        postRepository.discountLikesByUser(id);
+        postRepository.discountCommentsByUser(id);
+        userRepository.discountFollowsByFollower(id);
+        userRepository.discountFollowsByFollowed(id);
+        
+        // Um DELETE por tabela; o cascade do JPA carregaria as coleções e apagaria linha a linha
+        likeRepository.deleteAllOnPostsOfUser(id);
+        likeRepository.deleteAllByUserId(id);
+        commentRepository.deleteAllOnPostsOfUser(id);
+        commentRepository.deleteAllByUserId(id);
+        followRepository.deleteAllOfUser(id);
+        postRepository.deleteAllByUserId(id);
+        userRepository.deleteAllByIdInBatch(List.of(id));
+        
+        Cache postCache = cacheManager.getCache(CacheConfig.POSTS);
+        engagedPostIds.forEach(postCache::evict);
+        Cache userCache = cacheManager.getCache(CacheConfig.USERS);
+        connectedUserIds.forEach(userCache::evict);
+        eventPublisher.publishEvent(new UserDeletedEvent(id, postIds));
     }
     
     public User findUserEntityById(Long id) {
@@ -95,10 +298,4 @@ public class UserService {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
     }
-    
-    private UserDTO convertToDTO(User user) {
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
-        userDTO.setPostsCount(userRepository.countPostsByUserId(user.getId()));
-        return userDTO;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.facegram.timeline;
+
+import com.facegram.dto.Cursor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+
+// Post da timeline com a chave (created_at, id) usada na paginação. A data fica em
+// microssegundos, a precisão da coluna, para caber no buffer de long da caixa de entrada.
+public class TimelineEntry {
+    
+    // Mesma ordem das consultas: ORDER BY created_at DESC, id DESC
+    public static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparingLong(TimelineEntry::getCreatedAtMicros)
+            .thenComparingLong(TimelineEntry::getPostId)
+            .reversed();
+    
+    private final long postId;
+    private final long createdAtMicros;
+    
+    public TimelineEntry(long postId, long createdAtMicros) {
+        this.postId = postId;
+        this.createdAtMicros = createdAtMicros;
+    }
+    
+    // Usado pelas consultas do PostRepository (SELECT new ...)
+    public TimelineEntry(Long postId, LocalDateTime createdAt) {
+        this(postId, toMicros(createdAt));
+    }
+    
+    public static TimelineEntry of(Cursor cursor) {
+        return new TimelineEntry(cursor.getId(), cursor.getCreatedAt());
+    }
+    
+    // Verdadeiro se a entrada vem depois de "other" na ordem da timeline
+    public boolean isOlderThan(TimelineEntry other) {
+        return createdAtMicros < other.createdAtMicros
+                || (createdAtMicros == other.createdAtMicros && postId < other.postId);
+    }
+    
+    public Cursor toCursor() {
+        return new Cursor(getCreatedAt(), postId);
+    }
+    
+    public long getPostId() { return postId; }
+    
+    public long getCreatedAtMicros() { return createdAtMicros; }
+    
+    public LocalDateTime getCreatedAt() {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(createdAtMicros, 1_000_000L),
+                (int) Math.floorMod(createdAtMicros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+    
+    public static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,72 @@
+package com.facegram.timeline;
+
+import com.facegram.event.FollowChangedEvent;
+import com.facegram.event.PostCreatedEvent;
+import com.facegram.event.UserDeletedEvent;
+import com.facegram.repository.FollowRepository;
+import com.facegram.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+// Fan-out na escrita: depois do commit, fora da thread da requisição, empurra o
+// novo post para as caixas de entrada dos seguidores. Autores com mais seguidores
+// que o limite ficam de fora e são mesclados na leitura (fan-out na leitura).
+@Component
+public class TimelineFanoutListener {
+    
+    @Autowired
+    private TimelineStore timelineStore;
+    
+    @Autowired
+    private FollowRepository followRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${facegram.timeline.fanout-follower-limit:10000}")
+    private long fanoutFollowerLimit;
+    
+    @Value("${facegram.timeline.fanout-batch-size:1000}")
+    private int fanoutBatchSize;
+    
+    @Async
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        TimelineEntry entry = new TimelineEntry(event.getPostId(), event.getCreatedAt());
+        timelineStore.push(event.getAuthorId(), entry);
+        
+        Long followersCount = userRepository.findFollowersCountById(event.getAuthorId());
+        if (followersCount == null || followersCount > fanoutFollowerLimit) {
+            return;
+        }
+        
+        long afterId = 0;
+        List<Long> followerIds;
+        do {
+            followerIds = followRepository.findFollowerIds(event.getAuthorId(), afterId, Limit.of(fanoutBatchSize));
+            for (Long followerId : followerIds) {
+                timelineStore.push(followerId, entry);
+            }
+            if (!followerIds.isEmpty()) {
+                afterId = followerIds.get(followerIds.size() - 1);
+            }
+        } while (followerIds.size() == fanoutBatchSize);
+    }
+    
+    // Seguir ou deixar de seguir muda o conteúdo da timeline; ela é reconstruída na próxima leitura
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        timelineStore.invalidate(event.getFollowerId());
+    }
+    
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        timelineStore.invalidate(event.getUserId());
+    }
+}
@@ -0,0 +1,104 @@
+package com.facegram.timeline;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Caixa de entrada da timeline de um usuário: buffer circular de posts (id e data
+// em long primitivo) que guarda apenas os mais recentes, até a capacidade.
+public class TimelineInbox {
+    
+    private final long[] postIds;
+    private final long[] createdAts;
+    private int next;
+    private int size;
+    private boolean loaded;
+    private boolean complete;
+    
+    public TimelineInbox(int capacity) {
+        this.postIds = new long[capacity];
+        this.createdAts = new long[capacity];
+    }
+    
+    public synchronized void push(TimelineEntry entry) {
+        if (size == postIds.length) {
+            complete = false;
+        } else {
+            size++;
+        }
+        postIds[next] = entry.getPostId();
+        createdAts[next] = entry.getCreatedAtMicros();
+        next = (next + 1) % postIds.length;
+    }
+    
+    // Carrega o histórico vindo do banco, preservando os posts recebidos via fan-out
+    // durante a consulta. "complete" indica que o banco não tinha posts mais antigos.
+    public synchronized void load(List<TimelineEntry> history, boolean complete) {
+        List<TimelineEntry> merged = new ArrayList<>(history);
+        merged.addAll(snapshot());
+        merged = distinctNewestFirst(merged);
+        
+        int keep = Math.min(merged.size(), postIds.length);
+        // Do mais antigo para o mais recente, como se tivessem chegado por push
+        for (int i = 0; i < keep; i++) {
+            TimelineEntry entry = merged.get(keep - 1 - i);
+            postIds[i] = entry.getPostId();
+            createdAts[i] = entry.getCreatedAtMicros();
+        }
+        this.size = keep;
+        this.next = keep % postIds.length;
+        this.complete = complete && merged.size() <= postIds.length;
+        this.loaded = true;
+    }
+    
+    // Posts depois do cursor (null: desde o início), do mais recente para o mais antigo
+    public synchronized List<TimelineEntry> entriesAfter(TimelineEntry cursor, int limit) {
+        List<TimelineEntry> result = new ArrayList<>();
+        for (TimelineEntry entry : distinctNewestFirst(snapshot())) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (cursor == null || entry.isOlderThan(cursor)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+    
+    // Post mais antigo guardado, ou null se a caixa está vazia
+    public synchronized TimelineEntry oldest() {
+        List<TimelineEntry> entries = distinctNewestFirst(snapshot());
+        return entries.isEmpty() ? null : entries.get(entries.size() - 1);
+    }
+    
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+    
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+    
+    private List<TimelineEntry> snapshot() {
+        List<TimelineEntry> copy = new ArrayList<>(size);
+        int start = size == postIds.length ? next : 0;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % postIds.length;
+            copy.add(new TimelineEntry(postIds[index], createdAts[index]));
+        }
+        return copy;
+    }
+    
+    private static List<TimelineEntry> distinctNewestFirst(List<TimelineEntry> entries) {
+        entries.sort(TimelineEntry.NEWEST_FIRST);
+        Set<Long> seen = new HashSet<>();
+        List<TimelineEntry> distinct = new ArrayList<>(entries.size());
+        for (TimelineEntry entry : entries) {
+            if (seen.add(entry.getPostId())) {
+                distinct.add(entry);
+            }
+        }
+        return distinct;
+    }
+}
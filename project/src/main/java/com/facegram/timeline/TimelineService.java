@@ -0,0 +1,217 @@
+package com.facegram.timeline;
+
+import com.facegram.dto.Cursor;
+import com.facegram.dto.CursorPage;
+import com.facegram.dto.PostDTO;
+import com.facegram.repository.FollowRepository;
+import com.facegram.repository.PostRepository;
+import com.facegram.service.PostService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Timeline da página inicial: posts vêm da caixa de entrada em memória (mesclados
+// com os recentes das contas sem fan-out), ordenados por (created_at, id) como as
+// demais timelines, e são hidratados em lote.
+@Service
+@Transactional(readOnly = true)
+public class TimelineService {
+    
+    private static final int MAX_LIMIT = 50;
+    private static final int MERGE_ROWS_PER_ROUND = 1000;
+    private static final int MERGE_MIN_BATCH = 10;
+    
+    @Autowired
+    private TimelineStore timelineStore;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private FollowRepository followRepository;
+    
+    @Autowired
+    private PostService postService;
+    
+    @Value("${facegram.timeline.fanout-follower-limit:10000}")
+    private long fanoutFollowerLimit;
+    
+    @Value("${facegram.timeline.merge-max-authors:200}")
+    private int mergeMaxAuthors;
+    
+    public CursorPage<PostDTO> getHomeTimeline(Long userId, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        TimelineEntry cursor = after == null ? null : TimelineEntry.of(Cursor.decode(after));
+        
+        List<TimelineEntry> candidates = new ArrayList<>(inboxEntries(userId, cursor, pageSize + 1));
+        candidates.addAll(fanoutOnReadEntries(userId, cursor, pageSize + 1));
+        
+        Set<Long> seen = new HashSet<>();
+        List<TimelineEntry> entries = candidates.stream()
+                .sorted(TimelineEntry.NEWEST_FIRST)
+                .filter(entry -> seen.add(entry.getPostId()))
+                .limit(pageSize + 1)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            nextCursor = entries.get(pageSize - 1).toCursor().encode();
+        }
+        
+        List<Long> ids = entries.stream()
+                .map(TimelineEntry::getPostId)
+                .collect(Collectors.toList());
+        return new CursorPage<>(postService.getPostsByIds(ids, userId), nextCursor);
+    }
+    
+    private List<TimelineEntry> inboxEntries(Long userId, TimelineEntry cursor, int count) {
+        TimelineInbox inbox = timelineStore.get(userId);
+        if (inbox == null) {
+            inbox = loadInbox(userId);
+        }
+        if (inbox == null || !inbox.isLoaded()) {
+            return homeTimeline(userId, cursor, count);
+        }
+        
+        List<TimelineEntry> entries = new ArrayList<>(inbox.entriesAfter(cursor, count));
+        
+        // Rolagem além do que a caixa guarda continua direto no banco
+        if (entries.size() < count && !inbox.isComplete()) {
+            entries.addAll(homeTimeline(userId, olderOf(cursor, inbox.oldest()), count - entries.size()));
+        }
+        return entries;
+    }
+    
+    private TimelineInbox loadInbox(Long userId) {
+        TimelineInbox inbox = timelineStore.register(userId);
+        if (inbox == null) {
+            return timelineStore.get(userId);
+        }
+        
+        try {
+            int capacity = timelineStore.getInboxCapacity();
+            List<TimelineEntry> history = homeTimeline(userId, null, capacity);
+            inbox.load(history, history.size() < capacity);
+            return inbox;
+        } catch (RuntimeException ex) {
+            timelineStore.invalidate(userId);
+            throw ex;
+        }
+    }
+    
+    // Contas com muitos seguidores não fazem fan-out na escrita; seus posts entram na leitura
+    private List<TimelineEntry> fanoutOnReadEntries(Long userId, TimelineEntry cursor, int count) {
+        List<Long> authorIds = followRepository.findFollowedIdsWithFollowersAbove(userId, fanoutFollowerLimit);
+        if (authorIds.isEmpty()) {
+            return List.of();
+        }
+        if (authorIds.size() > mergeMaxAuthors) {
+            return scanHomeTimeline(userId, cursor, count);
+        }
+        return mergeAuthors(authorIds, cursor, count);
+    }
+    
+    // Timeline do banco: um seek por autor seguido e a mescla entre eles. Só quem segue contas
+    // demais para uma consulta por autor cai na varredura do índice global.
+    private List<TimelineEntry> homeTimeline(Long userId, TimelineEntry cursor, int count) {
+        List<Long> followedIds = followRepository.findFollowedIds(userId, Limit.of(mergeMaxAuthors + 1));
+        if (followedIds.size() > mergeMaxAuthors) {
+            return scanHomeTimeline(userId, cursor, count);
+        }
+        
+        Set<Long> authorIds = new LinkedHashSet<>(followedIds);
+        authorIds.add(userId);
+        return mergeAuthors(authorIds, cursor, count);
+    }
+    
+    private List<TimelineEntry> scanHomeTimeline(Long userId, TimelineEntry cursor, int count) {
+        if (cursor == null) {
+            return postRepository.findHomeTimeline(userId, Limit.of(count));
+        }
+        return postRepository.findHomeTimelineAfter(userId, cursor.getCreatedAt(), cursor.getPostId(),
+                Limit.of(count));
+    }
+    
+    // Mescla k-way das listas por autor, que já chegam em ordem. Cada rodada busca um lote de cada
+    // autor que ainda pode ter posts, a partir do cursor dele; uma entrada só sai quando não pode
+    // existir nada mais novo sem ler, ou seja, quando não é mais antiga que a última entrada lida
+    // de nenhum desses autores. O lote começa dividindo MERGE_ROWS_PER_ROUND entre os autores e
+    // dobra a cada rodada, então autores que postam pouco se esgotam logo na primeira.
+    private List<TimelineEntry> mergeAuthors(Collection<Long> authorIds, TimelineEntry cursor, int count) {
+        Map<Long, TimelineEntry> pendingCursors = new HashMap<>();
+        for (Long authorId : authorIds) {
+            pendingCursors.put(authorId, cursor);
+        }
+        
+        Map<Long, ArrayDeque<TimelineEntry>> buffers = new HashMap<>();
+        PriorityQueue<ArrayDeque<TimelineEntry>> heads = new PriorityQueue<>(Comparator.comparing(
+                (ArrayDeque<TimelineEntry> buffer) -> buffer.peekFirst(), TimelineEntry.NEWEST_FIRST));
+        List<TimelineEntry> merged = new ArrayList<>(count);
+        int batch = Math.min(count, Math.max(MERGE_MIN_BATCH, MERGE_ROWS_PER_ROUND / authorIds.size()));
+        
+        while (merged.size() < count && !pendingCursors.isEmpty()) {
+            Map<Long, List<TimelineEntry>> fetched = postRepository.findLatestByAuthors(pendingCursors, batch);
+            Map<Long, TimelineEntry> nextCursors = new HashMap<>();
+            for (Long authorId : pendingCursors.keySet()) {
+                List<TimelineEntry> entries = fetched.getOrDefault(authorId, List.of());
+                if (entries.isEmpty()) {
+                    continue;
+                }
+                // Lote cheio: o autor pode ter mais posts abaixo da última entrada lida
+                if (entries.size() == batch) {
+                    nextCursors.put(authorId, entries.get(entries.size() - 1));
+                }
+                ArrayDeque<TimelineEntry> buffer = buffers.computeIfAbsent(authorId, id -> new ArrayDeque<>());
+                boolean wasEmpty = buffer.isEmpty();
+                buffer.addAll(entries);
+                if (wasEmpty) {
+                    heads.add(buffer);
+                }
+            }
+            pendingCursors = nextCursors;
+            
+            TimelineEntry bound = pendingCursors.values().stream()
+                    .min(TimelineEntry.NEWEST_FIRST)
+                    .orElse(null);
+            while (merged.size() < count && !heads.isEmpty()) {
+                ArrayDeque<TimelineEntry> buffer = heads.peek();
+                if (bound != null && buffer.peekFirst().isOlderThan(bound)) {
+                    break;
+                }
+                heads.poll();
+                merged.add(buffer.pollFirst());
+                if (!buffer.isEmpty()) {
+                    heads.add(buffer);
+                }
+            }
+            batch = Math.min(count, batch * 2);
+        }
+        return merged;
+    }
+    
+    // O mais antigo dos dois cursores; null é o início da timeline
+    private static TimelineEntry olderOf(TimelineEntry first, TimelineEntry second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.isOlderThan(second) ? first : second;
+    }
+}
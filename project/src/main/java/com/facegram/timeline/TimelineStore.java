@@ -0,0 +1,67 @@
+package com.facegram.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Caixas de entrada em memória, criadas apenas para quem lê a própria timeline.
+// O total é limitado (as menos usadas saem primeiro) e cada caixa expira se ficar sem
+// leitura e, de todo modo, após uma idade máxima: o fan-out só alcança as caixas desta
+// instância, então a recarga traz do banco os posts distribuídos por outras.
+@Component
+public class TimelineStore {
+    
+    @Value("${facegram.timeline.inbox-capacity:500}")
+    private int inboxCapacity;
+    
+    @Value("${facegram.timeline.max-inboxes:100000}")
+    private long maxInboxes;
+    
+    @Value("${facegram.timeline.inbox-idle-seconds:1800}")
+    private long inboxIdleSeconds;
+    
+    @Value("${facegram.timeline.inbox-max-age-seconds:600}")
+    private long inboxMaxAgeSeconds;
+    
+    private Cache<Long, TimelineInbox> inboxes;
+    
+    @PostConstruct
+    public void init() {
+        inboxes = Caffeine.newBuilder()
+            .maximumSize(maxInboxes)
+            .expireAfterAccess(Duration.ofSeconds(inboxIdleSeconds))
+            .expireAfterWrite(Duration.ofSeconds(inboxMaxAgeSeconds))
+            .build();
+    }
+    
+    public TimelineInbox get(Long userId) {
+        return inboxes.getIfPresent(userId);
+    }
+    
+    // Registra uma caixa vazia antes da carga para não perder fan-outs concorrentes.
+    // Retorna null se outra thread já registrou a caixa.
+    public TimelineInbox register(Long userId) {
+        TimelineInbox inbox = new TimelineInbox(inboxCapacity);
+        return inboxes.asMap().putIfAbsent(userId, inbox) == null ? inbox : null;
+    }
+    
+    // Sem contar como acesso: o fan-out não mantém viva a caixa de quem não lê
+    public void push(Long userId, TimelineEntry entry) {
+        TimelineInbox inbox = inboxes.policy().getIfPresentQuietly(userId);
+        if (inbox != null) {
+            inbox.push(entry);
+        }
+    }
+    
+    public void invalidate(Long userId) {
+        inboxes.invalidate(userId);
+    }
+    
+    public int getInboxCapacity() {
+        return inboxCapacity;
+    }
+}
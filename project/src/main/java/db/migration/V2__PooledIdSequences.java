@@ -0,0 +1,42 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+// Troca as colunas IDENTITY por sequências com alocação em blocos de 50 (otimizador
+// pooled do Hibernate), o que libera o batch de INSERT no JDBC. Em Java porque o valor
+// inicial depende do maior id existente e H2 e PostgreSQL não têm um SETVAL comum.
+public class V2__PooledIdSequences extends BaseJavaMigration {
+    
+    // Precisa bater com o allocationSize dos @SequenceGenerator das entidades
+    private static final int ALLOCATION_SIZE = 50;
+    
+    private static final List<String> TABLES = List.of("users", "posts", "comments", "likes", "follows");
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long maxId = 0;
+                try (ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+                    if (rs.next()) {
+                        maxId = rs.getLong(1);
+                    }
+                }
+                
+                // O pooled usa o intervalo (valor - 50, valor]; o primeiro valor precisa
+                // deixar esse intervalo inteiro acima dos ids já gravados
+                String sequence = table + "_seq";
+                statement.execute("create sequence " + sequence + " start with " + (maxId + ALLOCATION_SIZE) +
+                        " increment by " + ALLOCATION_SIZE);
+                statement.execute("alter table " + table + " alter column id drop identity");
+                // Inserts nativos sem id explícito continuam funcionando
+                statement.execute("alter table " + table + " alter column id set default nextval('" + sequence + "')");
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto.
+-- Escrito para rodar sem alterações no H2 e no PostgreSQL.
+
+create table users (
+    id bigint generated by default as identity,
+    name varchar(100) not null,
+    email varchar(150) not null,
+    password varchar(255) not null,
+    bio varchar(500),
+    location varchar(100),
+    avatar_url varchar(500),
+    cover_photo_url varchar(500),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    posts_count bigint not null default 0,
+    followers_count bigint not null default 0,
+    following_count bigint not null default 0,
+    token_version integer not null default 0,
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table posts (
+    id bigint generated by default as identity,
+    content varchar(1000) not null,
+    image_url varchar(500),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    likes_count bigint not null default 0,
+    comments_count bigint not null default 0,
+    user_id bigint not null,
+    constraint pk_posts primary key (id),
+    constraint fk_posts_user foreign key (user_id) references users (id)
+);
+
+create table comments (
+    id bigint generated by default as identity,
+    content varchar(500) not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    post_id bigint not null,
+    constraint pk_comments primary key (id),
+    constraint fk_comments_user foreign key (user_id) references users (id),
+    constraint fk_comments_post foreign key (post_id) references posts (id)
+);
+
+create table likes (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    user_id bigint not null,
+    post_id bigint not null,
+    constraint pk_likes primary key (id),
+    constraint uk_likes_user_post unique (user_id, post_id),
+    constraint fk_likes_user foreign key (user_id) references users (id),
+    constraint fk_likes_post foreign key (post_id) references posts (id)
+);
+
+create table follows (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    follower_id bigint not null,
+    followed_id bigint not null,
+    constraint pk_follows primary key (id),
+    constraint uk_follows_follower_followed unique (follower_id, followed_id),
+    constraint fk_follows_follower foreign key (follower_id) references users (id),
+    constraint fk_follows_followed foreign key (followed_id) references users (id)
+);
+
+-- Diretório de usuários paginado por (created_at, id)
+create index idx_users_created_at_id on users (created_at, id);
+
+-- Timeline global e timeline de um autor; o id desempata o cursor
+create index idx_posts_created_at_id on posts (created_at, id);
+create index idx_posts_user_created_at_id on posts (user_id, created_at, id);
+
+-- Thread de um post e comentários de um usuário
+create index idx_comments_post_created_at_id on comments (post_id, created_at, id);
+create index idx_comments_user_created_at_id on comments (user_id, created_at, id);
+
+-- Contagem/reconciliação de curtidas por post e remoção em cascata do post;
+-- as buscas por usuário já usam a unique (user_id, post_id)
+create index idx_likes_post_id on likes (post_id);
+
+-- Seguidores de um usuário (fan-out); quem o usuário segue usa a unique (follower_id, followed_id)
+create index idx_follows_followed_follower on follows (followed_id, follower_id);
@@ -0,0 +1,16 @@
+-- As listagens mais recentes primeiro ordenam por (created_at desc, id desc). O H2 não percorre
+-- um índice ascendente de trás para frente e caía em varredura completa mais ordenação;
+-- com os índices já descendentes a página sai direto do índice. O PostgreSQL usa os dois igual.
+
+drop index idx_users_created_at_id;
+create index idx_users_created_at_id on users (created_at desc, id desc);
+
+drop index idx_posts_created_at_id;
+create index idx_posts_created_at_id on posts (created_at desc, id desc);
+
+drop index idx_posts_user_created_at_id;
+create index idx_posts_user_created_at_id on posts (user_id, created_at desc, id desc);
+
+-- A thread de um post continua em ordem cronológica e mantém o índice ascendente
+drop index idx_comments_user_created_at_id;
+create index idx_comments_user_created_at_id on comments (user_id, created_at desc, id desc);
@@ -0,0 +1,252 @@
+package com.facegram.controller;
+
+import com.facegram.exception.SqlBudgetExceededException;
+import com.facegram.metrics.SqlBudget;
+import com.facegram.model.Comment;
+import com.facegram.model.Like;
+import com.facegram.model.Post;
+import com.facegram.model.User;
+import com.facegram.repository.CommentRepository;
+import com.facegram.repository.LikeRepository;
+import com.facegram.repository.PostRepository;
+import com.facegram.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Com facegram.sql-budget.enforcement=fail, qualquer endpoint que passe do seu @SqlBudget responde 500:
+// percorrer os endpoints aqui garante que um N+1 novo quebra o build. O contexto tem propriedades
+// próprias, então usa um banco próprio em vez de repetir os dados de exemplo no testdb dos outros testes.
+@SpringBootTest(properties = {
+    "facegram.sql-budget.enforcement=fail",
+    "spring.datasource.url=jdbc:h2:mem:sqlbudget"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlBudgetEnforcementTest {
+    
+    private static final String PASSWORD = "123456";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private LikeRepository likeRepository;
+    
+    private Account author;
+    private Account reader;
+    
+    @BeforeEach
+    void registerAccounts() throws Exception {
+        author = register("Autora");
+        reader = register("Leitor");
+    }
+    
+    @Test
+    void authEndpointsStayWithinBudget() throws Exception {
+        MvcResult login = perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + reader.email + "\",\"password\":\"" + PASSWORD + "\"}"));
+        String token = JsonPath.read(login.getResponse().getContentAsString(), "$.token");
+        
+        perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+    
+    @Test
+    void userEndpointsStayWithinBudget() throws Exception {
+        perform(reader.with(get("/api/users/me")));
+        perform(reader.with(get("/api/users/" + author.id)));
+        perform(reader.with(get("/api/users")));
+        perform(reader.with(get("/api/users?limit=5")));
+        perform(reader.with(get("/api/users/search?name=Autora")));
+        perform(reader.with(get("/api/users/autocomplete?q=Aut")));
+        perform(reader.with(put("/api/users/" + reader.id))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Leitor Editado\",\"email\":\"" + reader.email + "\",\"bio\":\"Oi\"}"));
+    }
+    
+    @Test
+    void feedEndpointsStayWithinBudget() throws Exception {
+        perform(reader.with(post("/api/follows/" + author.id)));
+        perform(reader.with(get("/api/follows/check/" + author.id)));
+        
+        long postId = id(perform(author.with(post("/api/posts"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"Primeiro post\"}")));
+        perform(author.with(put("/api/posts/" + postId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"Primeiro post editado\"}"));
+        
+        perform(reader.with(post("/api/likes/toggle/" + postId)));
+        perform(reader.with(delete("/api/likes/" + postId)));
+        perform(reader.with(put("/api/likes/" + postId)));
+        perform(reader.with(get("/api/likes/check/" + postId)));
+        
+        long commentId = id(perform(reader.with(post("/api/comments"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"Comentário\",\"postId\":" + postId + "}")));
+        perform(reader.with(put("/api/comments/" + commentId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"Comentário editado\",\"postId\":" + postId + "}"));
+        perform(reader.with(get("/api/comments/post/" + postId)));
+        perform(reader.with(get("/api/comments/post/" + postId + "?limit=5")));
+        perform(reader.with(get("/api/comments/user/" + reader.id)));
+        perform(reader.with(get("/api/comments/preview?postIds=" + postId + ",1,2")));
+        
+        perform(reader.with(get("/api/posts")));
+        perform(reader.with(get("/api/posts?limit=10")));
+        perform(reader.with(get("/api/posts/home")));
+        perform(reader.with(get("/api/posts/search?q=post")));
+        perform(reader.with(get("/api/posts/" + postId)));
+        perform(reader.with(get("/api/posts/user/" + author.id)));
+        perform(reader.with(get("/api/posts/user/" + author.id + "?limit=10")));
+        
+        perform(reader.with(delete("/api/comments/" + commentId)));
+        perform(reader.with(delete("/api/follows/" + author.id)));
+        perform(author.with(delete("/api/posts/" + postId)));
+    }
+    
+    // A exclusão de conta tem custo fixo: com posts, comentários, curtidas e follows nos dois sentidos
+    // ela continua dentro do orçamento, e os contadores de quem ficou acompanham
+    @Test
+    void deletingAnActiveAccountStaysWithinBudget() throws Exception {
+        perform(reader.with(post("/api/follows/" + author.id)));
+        perform(author.with(post("/api/follows/" + reader.id)));
+        long readerPostId = id(perform(reader.with(post("/api/posts"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"Post do leitor\"}")));
+        perform(author.with(post("/api/likes/toggle/" + readerPostId)));
+        perform(author.with(post("/api/comments"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"Comentário\",\"postId\":" + readerPostId + "}"));
+        
+        User user = userRepository.findById(author.id).orElseThrow();
+        User other = userRepository.findById(reader.id).orElseThrow();
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            posts.add(new Post("Post " + i, user));
+        }
+        for (Post post : postRepository.saveAll(posts)) {
+            Comment comment = new Comment();
+            comment.setContent("Comentário");
+            comment.setUser(other);
+            comment.setPost(post);
+            commentRepository.save(comment);
+            likeRepository.save(new Like(other, post));
+        }
+        
+        perform(author.with(delete("/api/users/" + author.id)));
+        
+        assertThat(userRepository.existsById(author.id)).isFalse();
+        assertThat(postRepository.findIdsByUserId(author.id)).isEmpty();
+        User remaining = userRepository.findById(reader.id).orElseThrow();
+        assertThat(remaining.getFollowersCount()).isZero();
+        assertThat(remaining.getFollowingCount()).isZero();
+        Post readerPost = postRepository.findById(readerPostId).orElseThrow();
+        assertThat(readerPost.getLikesCount()).isZero();
+        assertThat(readerPost.getCommentsCount()).isZero();
+    }
+    
+    // Um endpoint que passa do orçamento responde 500 e a transação volta atrás. O endpoint existe só
+    // neste teste (OverBudgetController) para que nenhum endpoint real precise estourar de propósito.
+    @Test
+    void overBudgetRequestFailsAndRollsBack() throws Exception {
+        long postsCount = userRepository.findById(author.id).orElseThrow().getPostsCount();
+        
+        MvcResult result = mockMvc.perform(author.with(post("/test/over-budget/" + author.id))).andReturn();
+        
+        assertThat(result.getResponse().getStatus()).isEqualTo(500);
+        assertThat(result.getResolvedException()).isInstanceOf(SqlBudgetExceededException.class);
+        assertThat(userRepository.findById(author.id).orElseThrow().getPostsCount()).isEqualTo(postsCount);
+    }
+    
+    private Account register(String name) throws Exception {
+        String email = UUID.randomUUID() + "@test.dev";
+        MvcResult result = perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"));
+        String body = result.getResponse().getContentAsString();
+        return new Account(((Number) JsonPath.read(body, "$.user.id")).longValue(), email,
+                JsonPath.read(body, "$.token"));
+    }
+    
+    // Acima do orçamento a resposta seria 500; qualquer outra falha também aparece aqui
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn();
+        assertThat(result.getResolvedException()).isNull();
+        return result;
+    }
+    
+    private static long id(MvcResult result) throws Exception {
+        return ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.id")).longValue();
+    }
+    
+    private record Account(long id, String email, String token) {
+        
+        MockHttpServletRequestBuilder with(MockHttpServletRequestBuilder request) {
+            return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+    }
+    
+    // Escreve e depois repete uma consulta até passar do orçamento
+    @TestConfiguration
+    static class OverBudgetConfig {
+        
+        @Bean
+        OverBudgetController overBudgetController() {
+            return new OverBudgetController();
+        }
+    }
+    
+    @RestController
+    static class OverBudgetController {
+        
+        @Autowired
+        private UserRepository userRepository;
+        
+        @PostMapping("/test/over-budget/{userId}")
+        @SqlBudget(5)
+        @Transactional
+        public void overBudget(@PathVariable Long userId) {
+            userRepository.incrementPostsCount(userId, 1);
+            for (int i = 0; i < 10; i++) {
+                userRepository.findFollowersCountById(userId);
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.facegram.repository;
+
+import com.facegram.dto.Cursor;
+import com.facegram.metrics.SqlStatementCounter;
+import com.facegram.model.Comment;
+import com.facegram.model.Follow;
+import com.facegram.model.Like;
+import com.facegram.model.Post;
+import com.facegram.model.User;
+import com.facegram.timeline.TimelineEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// As consultas mais quentes precisam continuar usando os índices das migrações. O SQL vem do próprio
+// Hibernate, capturado pelo SqlStatementCounter enquanto os repositórios rodam sobre dados reais, e
+// o EXPLAIN é feito sobre esse texto: se a consulta mudar de forma ou um índice sumir, o teste falha.
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanTest {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private LikeRepository likeRepository;
+    
+    @Autowired
+    private FollowRepository followRepository;
+    
+    private User author;
+    private User reader;
+    private List<Post> posts;
+    private List<Comment> comments;
+    
+    @BeforeEach
+    void createActivity() {
+        author = userRepository.save(newUser());
+        reader = userRepository.save(newUser());
+        followRepository.save(new Follow(reader, author));
+        
+        posts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            posts.add(new Post("Post " + i, author));
+        }
+        posts = postRepository.saveAll(posts);
+        
+        comments = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment();
+            comment.setContent("Comentário " + i);
+            comment.setUser(reader);
+            comment.setPost(posts.get(0));
+            comments.add(comment);
+        }
+        comments = commentRepository.saveAll(comments);
+        
+        Like like = new Like();
+        like.setUser(reader);
+        like.setPost(posts.get(0));
+        likeRepository.save(like);
+    }
+    
+    @Test
+    void globalTimelineReadsPagesStraightFromCreatedAtIndex() {
+        Post last = posts.get(2);
+        List<String> plans = plansOf(() -> {
+            postRepository.findTimeline(Limit.of(21));
+            postRepository.findTimelineAfter(last.getCreatedAt(), last.getId(), Limit.of(21));
+        });
+        
+        assertThat(plans).hasSize(2).allSatisfy(plan ->
+                assertThat(plan).containsIgnoringCase("idx_posts_created_at_id").contains("index sorted"));
+        assertSeek(plans.get(1), "idx_posts_created_at_id", "created_at <=");
+    }
+    
+    // Cada autor seguido é um ramo do UNION ALL: seek no idx_posts_user_created_at_id que para no limite
+    @Test
+    void homeTimelineSeeksEachAuthorOnUserCreatedAtIndex() {
+        Post last = posts.get(2);
+        Map<Long, TimelineEntry> cursors = new LinkedHashMap<>();
+        cursors.put(reader.getId(), null);
+        cursors.put(author.getId(), new TimelineEntry(last.getId(), last.getCreatedAt()));
+        List<String> plans = plansOf(() -> {
+            followRepository.findFollowedIds(reader.getId(), Limit.of(201));
+            postRepository.findLatestByAuthors(cursors, 10);
+        });
+        
+        assertSeek(plans.get(0), "uk_follows_follower_followed", "follower_id =");
+        
+        String merge = plans.get(1);
+        assertThat(StringUtils.countOccurrencesOf(merge.toUpperCase(), "IDX_POSTS_USER_CREATED_AT_ID: USER_ID =")).isEqualTo(2);
+        assertThat(StringUtils.countOccurrencesOf(merge, "index sorted")).isEqualTo(2);
+        assertSeek(merge, "idx_posts_user_created_at_id", "user_id = ?3 AND created_at <=");
+        assertThat(merge).doesNotContainIgnoringCase("idx_posts_created_at_id");
+    }
+    
+    // Só para quem segue mais contas que facegram.timeline.merge-max-authors
+    @Test
+    void homeTimelineFallbackScansCreatedAtIndex() {
+        Post last = posts.get(2);
+        List<String> plans = plansOf(() -> {
+            postRepository.findHomeTimeline(reader.getId(), Limit.of(200));
+            postRepository.findHomeTimelineAfter(reader.getId(), last.getCreatedAt(), last.getId(), Limit.of(200));
+        });
+        
+        assertThat(plans).hasSize(2).allSatisfy(plan ->
+                assertThat(plan).containsIgnoringCase("idx_posts_created_at_id").contains("index sorted"));
+    }
+    
+    @Test
+    void authorTimelineSeeksUserCreatedAtIndex() {
+        Post last = posts.get(2);
+        List<String> plans = plansOf(() -> {
+            postRepository.findUserTimelineAfter(author.getId(), Cursor.NEWEST.getCreatedAt(), Cursor.NEWEST.getId(),
+                    Limit.of(21));
+            postRepository.findUserTimelineAfter(author.getId(), last.getCreatedAt(), last.getId(), Limit.of(21));
+        });
+        
+        assertThat(plans).hasSize(2).allSatisfy(plan -> {
+            assertSeek(plan, "idx_posts_user_created_at_id", "user_id = ?1 AND created_at <=");
+            assertThat(plan).contains("index sorted");
+        });
+    }
+    
+    @Test
+    void postsByIdUsePrimaryKeys() {
+        List<Long> ids = posts.stream().map(Post::getId).toList();
+        List<String> plans = plansOf(() -> {
+            postRepository.findWithUserById(ids.get(0));
+            postRepository.findAllWithUserByIdIn(ids);
+            postRepository.findLikesCountById(ids.get(0));
+        });
+        
+        assertThat(plans).hasSize(3).allSatisfy(plan -> assertPrimaryKeyLookups(plan, "posts"));
+    }
+    
+    @Test
+    void likedPostsUseUserPostUnique() {
+        List<Long> ids = posts.stream().map(Post::getId).toList();
+        List<String> plans = plansOf(() -> {
+            likeRepository.findLikedPostIds(reader.getId(), ids);
+            likeRepository.existsByUserIdAndPostId(reader.getId(), ids.get(0));
+        });
+        
+        assertThat(plans).hasSize(2).allSatisfy(plan -> assertSeek(plan, "uk_likes_user_post", ""));
+        assertThat(plans.get(0)).containsIgnoringCase("user_id = ?1");
+    }
+    
+    // A reconciliação conta curtidas e comentários por post: cada contagem precisa ser uma busca por post_id.
+    // O H2 cria sozinho um índice para cada chave estrangeira e pode preferi-lo aos das migrações.
+    @Test
+    void counterDriftCountsByPostId() {
+        String plan = plansOf(() -> postRepository.findIdsWithCounterDrift(posts.get(0).getId(), posts.get(4).getId()))
+                .get(0);
+        
+        assertThat(plan).doesNotContain("tableScan");
+        assertThat(StringUtils.countOccurrencesOf(plan.toUpperCase(), "POST_ID = P1_0.ID")).isGreaterThanOrEqualTo(2);
+    }
+    
+    // Prévia de comentários: um ramo limitado por post, cada um lendo o começo da thread no índice
+    @Test
+    void commentPreviewSeeksEachPostOnPostCreatedAtIndex() {
+        List<Long> ids = posts.stream().limit(3).map(Post::getId).toList();
+        String plan = plansOf(() -> commentRepository.findPreviewIds(ids, 3)).get(0);
+        
+        assertThat(StringUtils.countOccurrencesOf(plan.toUpperCase(), "IDX_COMMENTS_POST_CREATED_AT_ID: POST_ID =")).isEqualTo(3);
+        assertThat(StringUtils.countOccurrencesOf(plan, "index sorted")).isEqualTo(3);
+    }
+    
+    @Test
+    void commentThreadSeeksPostCreatedAtIndex() {
+        Comment first = comments.get(0);
+        List<String> plans = plansOf(() -> {
+            commentRepository.findThreadAfter(posts.get(0).getId(), Cursor.OLDEST.getCreatedAt(), Cursor.OLDEST.getId(),
+                    Limit.of(21));
+            commentRepository.findThreadAfter(posts.get(0).getId(), first.getCreatedAt(), first.getId(), Limit.of(21));
+        });
+        
+        assertThat(plans).hasSize(2).allSatisfy(plan -> {
+            assertSeek(plan, "idx_comments_post_created_at_id", "post_id = ?1 AND created_at >=");
+            assertThat(plan).contains("index sorted");
+        });
+    }
+    
+    @Test
+    void userCommentsSeekUserCreatedAtIndex() {
+        Comment last = comments.get(2);
+        List<String> plans = plansOf(() -> {
+            commentRepository.findUserCommentsAfter(reader.getId(), Cursor.NEWEST.getCreatedAt(), Cursor.NEWEST.getId(),
+                    Limit.of(21));
+            commentRepository.findUserCommentsAfter(reader.getId(), last.getCreatedAt(), last.getId(), Limit.of(21));
+        });
+        
+        assertThat(plans).hasSize(2).allSatisfy(plan -> {
+            assertSeek(plan, "idx_comments_user_created_at_id", "user_id = ?1 AND created_at <=");
+            assertThat(plan).contains("index sorted");
+        });
+    }
+    
+    @Test
+    void commentsByIdUsePrimaryKeys() {
+        List<Long> ids = comments.stream().map(Comment::getId).toList();
+        List<String> plans = plansOf(() -> {
+            commentRepository.findWithUserById(ids.get(0));
+            commentRepository.findAllWithUserByIdIn(ids);
+        });
+        
+        assertThat(plans).hasSize(2).allSatisfy(plan -> assertPrimaryKeyLookups(plan, "comments"));
+    }
+    
+    @Test
+    void followersOfUserSeekFollowedFollowerIndex() {
+        String plan = plansOf(() -> followRepository.findFollowerIds(author.getId(), 0L, Limit.of(500))).get(0);
+        
+        assertSeek(plan, "idx_follows_followed_follower", "followed_id = ?1 AND follower_id >");
+    }
+    
+    @Test
+    void followedAccountsSeekFollowerFollowedUnique() {
+        List<String> plans = plansOf(() -> {
+            followRepository.findFollowedIdsWithFollowersAbove(reader.getId(), 1000);
+            followRepository.existsByFollowerIdAndFollowedId(reader.getId(), author.getId());
+        });
+        
+        assertThat(plans).hasSize(2).allSatisfy(plan -> assertSeek(plan, "uk_follows_follower_followed", "follower_id = ?1"));
+    }
+    
+    @Test
+    void userDirectoryReadsPagesStraightFromCreatedAtIndex() {
+        List<String> plans = plansOf(() -> {
+            userRepository.findDirectory(Limit.of(21));
+            userRepository.findDirectoryAfter(author.getCreatedAt(), author.getId(), Limit.of(21));
+        });
+        
+        assertThat(plans).hasSize(2).allSatisfy(plan ->
+                assertThat(plan).containsIgnoringCase("idx_users_created_at_id").contains("index sorted"));
+        assertSeek(plans.get(1), "idx_users_created_at_id", "created_at <=");
+    }
+    
+    // Roda as chamadas capturando o SQL que o Hibernate prepara e devolve o plano de cada comando
+    private List<String> plansOf(Runnable calls) {
+        SqlStatementCounter.start(true, false);
+        List<String> statements;
+        try {
+            calls.run();
+        } finally {
+            statements = SqlStatementCounter.stop().getStatements();
+        }
+        return statements.stream().map(this::explain).toList();
+    }
+    
+    // O H2 escolhe o plano na preparação: os parâmetros não precisam de valor para o EXPLAIN
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql), rs -> {
+            rs.next();
+            return rs.getString(1).replaceAll("\\s+", " ");
+        });
+    }
+    
+    // Busca pelo índice: o plano mostra a condição usada nele depois do nome do índice. Os índices
+    // que o H2 cria para constraints unique ganham um sufixo (uk_likes_user_post_index_4).
+    private static void assertSeek(String plan, String index, String condition) {
+        Pattern seek = Pattern.compile(Pattern.quote(index) + "(_INDEX_\\w+)?: " + Pattern.quote(condition),
+                Pattern.CASE_INSENSITIVE);
+        assertThat(plan).containsPattern(seek);
+    }
+    
+    private static void assertPrimaryKeyLookups(String plan, String table) {
+        assertThat(plan).containsIgnoringCase("\"" + table + "\"").containsIgnoringCase("primary_key_")
+                .doesNotContain("tableScan");
+    }
+    
+    private static User newUser() {
+        return new User("Autor", UUID.randomUUID() + "@test.dev", "123456");
+    }
+}
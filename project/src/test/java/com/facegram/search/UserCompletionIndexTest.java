@@ -0,0 +1,82 @@
+package com.facegram.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Os tops dos prefixos curtos são mantidos a cada edição, sem varredura: depois de qualquer sequência
+// de cadastros, renomeações, exclusões e mudanças de seguidores precisam ser iguais ao ranking
+// calculado do zero. Ids bem acima dos do banco e nomes com X e Z, que nenhum dado de exemplo usa.
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCompletionIndexTest {
+    
+    private static final long FIRST_ID = 9_000_000L;
+    private static final String[] WORDS = { "Xavier", "Xuxa", "Xisto", "Zeca", "Zuleica", "Xande" };
+    private static final String[] PREFIXES = { "x", "xa", "xu", "xi", "z", "ze", "zu" };
+    
+    @Autowired
+    private UserCompletionIndex userCompletionIndex;
+    
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, Long> followers = new HashMap<>();
+    
+    @AfterEach
+    void removeUsers() {
+        names.keySet().forEach(userCompletionIndex::remove);
+    }
+    
+    @Test
+    void shortPrefixesMatchRankingAfterEveryEdit() {
+        Random random = new Random(7);
+        for (int step = 0; step < 3000; step++) {
+            long userId = FIRST_ID + random.nextInt(200);
+            int operation = random.nextInt(10);
+            if (operation < 4) {
+                String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                userCompletionIndex.index(userId, name);
+                names.put(userId, name);
+                followers.putIfAbsent(userId, 0L);
+            } else if (operation < 6) {
+                userCompletionIndex.remove(userId);
+                names.remove(userId);
+            } else if (names.containsKey(userId)) {
+                long count = random.nextInt(50);
+                userCompletionIndex.updatePopularity(userId, count);
+                followers.put(userId, count);
+            }
+            
+            for (String prefix : PREFIXES) {
+                assertThat(userCompletionIndex.complete(prefix, UserCompletionIndex.MAX_RESULTS))
+                        .as("prefixo %s no passo %d", prefix, step)
+                        .containsExactlyElementsOf(expected(prefix));
+            }
+        }
+    }
+    
+    // Mais seguidos primeiro e, no empate, o id menor, entre os que têm uma palavra com o prefixo
+    private List<Long> expected(String prefix) {
+        List<Long> matches = new ArrayList<>();
+        names.forEach((userId, name) -> {
+            for (String word : name.toLowerCase().split(" ")) {
+                if (word.startsWith(prefix)) {
+                    matches.add(userId);
+                    return;
+                }
+            }
+        });
+        matches.sort(Comparator.<Long>comparingLong(followers::get).reversed().thenComparing(Comparator.naturalOrder()));
+        return matches.subList(0, Math.min(matches.size(), UserCompletionIndex.MAX_RESULTS));
+    }
+}
@@ -0,0 +1,127 @@
+package com.facegram.service;
+
+import com.facegram.model.Post;
+import com.facegram.model.User;
+import com.facegram.repository.PostRepository;
+import com.facegram.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Milhares de curtidas simultâneas no mesmo post: nenhuma falha de unique,
+// estado final coerente com as chamadas e contador igual às linhas de likes
+@SpringBootTest
+@ActiveProfiles("test")
+class LikeServiceConcurrencyTest {
+    
+    private static final int USERS = 40;
+    private static final int THREADS = 16;
+    private static final int CALLS = 3000;
+    
+    @Autowired
+    private LikeService likeService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long postId;
+    private List<Long> userIds;
+    
+    @BeforeEach
+    void createPostAndUsers() {
+        User author = userRepository.save(newUser());
+        postId = postRepository.save(new Post("Post disputado", author)).getId();
+        
+        userIds = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(userRepository.save(newUser()).getId());
+        }
+    }
+    
+    @Test
+    void concurrentTogglesKeepStateAndCounterConsistent() throws Exception {
+        // Cada usuário termina curtindo se e só se alternou um número ímpar de vezes
+        AtomicIntegerArray toggles = new AtomicIntegerArray(USERS);
+        runConcurrently(() -> {
+            int user = ThreadLocalRandom.current().nextInt(USERS);
+            likeService.toggleLike(postId, userIds.get(user));
+            toggles.incrementAndGet(user);
+        });
+        
+        int expectedLikes = 0;
+        for (int user = 0; user < USERS; user++) {
+            boolean expectedLiked = toggles.get(user) % 2 == 1;
+            assertThat(likeService.isPostLikedByUser(postId, userIds.get(user))).isEqualTo(expectedLiked);
+            expectedLikes += expectedLiked ? 1 : 0;
+        }
+        assertCounterMatchesRows(expectedLikes);
+    }
+    
+    @Test
+    void concurrentLikesAndUnlikesKeepCounterConsistent() throws Exception {
+        runConcurrently(() -> {
+            Long userId = userIds.get(ThreadLocalRandom.current().nextInt(USERS));
+            if (ThreadLocalRandom.current().nextBoolean()) {
+                likeService.like(postId, userId);
+            } else {
+                likeService.unlike(postId, userId);
+            }
+        });
+        
+        int liked = 0;
+        for (Long userId : userIds) {
+            liked += likeService.isPostLikedByUser(postId, userId) ? 1 : 0;
+        }
+        assertCounterMatchesRows(liked);
+    }
+    
+    // Dispara CALLS chamadas em THREADS threads e propaga a primeira falha
+    private static void runConcurrently(Runnable call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLS; i++) {
+                futures.add(executor.submit(call));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        }
+    }
+    
+    private void assertCounterMatchesRows(int expectedLikes) {
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM likes WHERE post_id = ?", Integer.class, postId);
+        
+        assertThat(rows).isEqualTo(expectedLikes);
+        assertThat(postRepository.findLikesCountById(postId)).contains((long) expectedLikes);
+    }
+    
+    private static User newUser() {
+        return new User("Curtidor", UUID.randomUUID() + "@test.dev", "123456");
+    }
+}
@@ -0,0 +1,99 @@
+package com.facegram.service;
+
+import com.facegram.dto.CursorPage;
+import com.facegram.dto.PostDTO;
+import com.facegram.metrics.SqlStatementCounter;
+import com.facegram.model.Like;
+import com.facegram.model.Post;
+import com.facegram.model.User;
+import com.facegram.repository.LikeRepository;
+import com.facegram.repository.PostRepository;
+import com.facegram.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// O número de comandos SQL de uma página do feed não pode depender do tamanho da página
+@SpringBootTest
+@ActiveProfiles("test")
+class PostServiceQueryCountTest {
+    
+    private static final int PAGE_SIZE = 20;
+    
+    @Autowired
+    private PostService postService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private LikeRepository likeRepository;
+    
+    private User viewer;
+    
+    @BeforeEach
+    void createPosts() {
+        viewer = userRepository.save(newUser());
+        
+        // Autores distintos e curtidas do leitor em metade dos posts, para que cada
+        // post da página exija autor, contagens e "curtido por mim"
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i <= PAGE_SIZE; i++) {
+            posts.add(new Post("Post " + i, userRepository.save(newUser())));
+        }
+        posts = postRepository.saveAll(posts);
+        for (int i = 0; i < posts.size(); i += 2) {
+            likeRepository.save(new Like(viewer, posts.get(i)));
+        }
+    }
+    
+    @Test
+    void globalFeedPageCostsTheSameForOneAndTwentyPosts() {
+        List<Long> counts = new ArrayList<>();
+        Page<PostDTO> onePost = countStatements(() -> postService.getAllPosts(0, 1, viewer.getId()), counts);
+        Page<PostDTO> twentyPosts = countStatements(() -> postService.getAllPosts(0, PAGE_SIZE, viewer.getId()), counts);
+        
+        assertThat(onePost.getContent()).hasSize(1);
+        assertThat(twentyPosts.getContent()).hasSize(PAGE_SIZE);
+        assertThat(counts.get(1)).isEqualTo(counts.get(0));
+    }
+    
+    @Test
+    void cursorFeedPageCostsTheSameForOneAndTwentyPosts() {
+        List<Long> counts = new ArrayList<>();
+        CursorPage<PostDTO> onePost = countStatements(() -> postService.getPostsAfter(null, 1, viewer.getId()), counts);
+        CursorPage<PostDTO> twentyPosts = countStatements(
+                () -> postService.getPostsAfter(null, PAGE_SIZE, viewer.getId()), counts);
+        
+        assertThat(onePost.getContent()).hasSize(1);
+        assertThat(twentyPosts.getContent()).hasSize(PAGE_SIZE);
+        assertThat(counts.get(1)).isEqualTo(counts.get(0));
+    }
+    
+    // Conta os comandos que o Hibernate executa durante a chamada e anota em counts
+    private static <T> T countStatements(Supplier<T> call, List<Long> counts) {
+        SqlStatementCounter.start(false, false);
+        try {
+            return call.get();
+        } finally {
+            counts.add(SqlStatementCounter.stop().getCount());
+        }
+    }
+    
+    private static User newUser() {
+        return new User("Autor", UUID.randomUUID() + "@test.dev", "123456");
+    }
+}
@@ -0,0 +1,102 @@
+package com.facegram.timeline;
+
+import com.facegram.dto.CursorPage;
+import com.facegram.dto.PostDTO;
+import com.facegram.model.Follow;
+import com.facegram.model.Post;
+import com.facegram.model.User;
+import com.facegram.repository.FollowRepository;
+import com.facegram.repository.PostRepository;
+import com.facegram.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A mescla por autor precisa devolver exatamente a timeline da varredura global, página a página,
+// inclusive além da caixa de entrada e com contas sem fan-out na escrita. Caixa pequena e limite
+// de fan-out baixo para passar por todos os caminhos; banco próprio por causa das propriedades.
+@SpringBootTest(properties = {
+    "facegram.timeline.inbox-capacity=25",
+    "facegram.timeline.fanout-follower-limit=2",
+    "spring.datasource.url=jdbc:h2:mem:timeline"
+})
+@ActiveProfiles("test")
+class TimelineServiceTest {
+    
+    private static final int AUTHORS = 30;
+    
+    @Autowired
+    private TimelineService timelineService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private FollowRepository followRepository;
+    
+    private User reader;
+    
+    @BeforeEach
+    void createFollowedAuthors() {
+        reader = userRepository.save(newUser());
+        
+        // Autores com volumes bem diferentes: a maioria posta pouco ou nada, dois postam muito
+        // e um deles tem seguidores acima do limite de fan-out
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            User author = newUser();
+            author.setFollowersCount(i == 0 ? 5 : 1);
+            author = userRepository.save(author);
+            followRepository.save(new Follow(reader, author));
+            authors.add(author);
+        }
+        
+        Random random = new Random(42);
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            int pick = random.nextInt(10);
+            User author = pick < 4 ? authors.get(0) : pick < 7 ? authors.get(1) : authors.get(2 + random.nextInt(10));
+            posts.add(new Post("Post " + i, author));
+        }
+        for (int i = 0; i < 5; i++) {
+            posts.add(new Post("Meu post " + i, reader));
+        }
+        postRepository.saveAll(posts);
+    }
+    
+    @Test
+    void mergedPagesMatchTheGlobalScan() {
+        List<Long> expected = postRepository.findHomeTimeline(reader.getId(), Limit.of(1000)).stream()
+                .map(TimelineEntry::getPostId)
+                .collect(Collectors.toList());
+        
+        List<Long> paged = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<PostDTO> page = timelineService.getHomeTimeline(reader.getId(), after, 7);
+            page.getContent().forEach(post -> paged.add(post.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+        
+        assertThat(expected).hasSize(125);
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+    
+    private static User newUser() {
+        return new User("Autor", UUID.randomUUID() + "@test.dev", "123456");
+    }
+}